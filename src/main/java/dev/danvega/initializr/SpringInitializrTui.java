@@ -2,24 +2,32 @@ package dev.danvega.initializr;
 
 import dev.danvega.initializr.api.InitializrClient;
 import dev.danvega.initializr.api.InitializrMetadata;
+import dev.danvega.initializr.api.MetadataLoader;
+import dev.danvega.initializr.api.ZipPrefetcher;
 import dev.danvega.initializr.model.ProjectConfig;
 import dev.danvega.initializr.ui.*;
+import dev.danvega.initializr.util.BlobStore;
 import dev.danvega.initializr.util.ConfigStore;
+import dev.danvega.initializr.util.ContentSniffer;
+import dev.danvega.initializr.util.EntryTransform;
 import dev.danvega.initializr.util.IdeLauncher;
+import dev.danvega.initializr.util.MetadataCache;
+import dev.danvega.initializr.util.PropertiesToYaml;
+import dev.danvega.initializr.util.ZipArchive;
+import dev.danvega.initializr.util.ZipExtractor;
 import dev.tamboui.tui.event.KeyCode;
 import dev.tamboui.tui.event.KeyEvent;
 import dev.tamboui.toolkit.app.ToolkitApp;
 import dev.tamboui.toolkit.element.Element;
 import dev.tamboui.toolkit.event.EventResult;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipInputStream;
 
 import static dev.tamboui.toolkit.Toolkit.*;
 
@@ -33,13 +41,19 @@ public class SpringInitializrTui extends ToolkitApp {
 
     private volatile Screen currentScreen = Screen.SPLASH;
     private Screen previousScreen = Screen.MAIN;
-    private final InitializrClient client = new InitializrClient();
+    private final InitializrClient client;
+    private final ZipPrefetcher zipPrefetcher;
+    private final BuildPreviewPane buildPreview;
     private final ConfigStore configStore = new ConfigStore();
+    private final BlobStore blobStore = new BlobStore();
+    private final MetadataCache metadataCache = new MetadataCache();
     private final ProjectConfig config = new ProjectConfig();
     private final GenerateScreen generateScreen = new GenerateScreen();
     private final HelpScreen helpScreen = new HelpScreen();
 
     private volatile InitializrMetadata.Metadata metadata;
+    // Fresh metadata from background revalidation, swapped in on the render thread
+    private volatile InitializrMetadata.Metadata pendingMetadata;
     private volatile MainScreen mainScreen;
     private volatile ExploreScreen exploreScreen;
 
@@ -53,6 +67,12 @@ public class SpringInitializrTui extends ToolkitApp {
     // "Open in Terminal" — print cd command after TUI exits
     private volatile Path pendingTerminalDir;
 
+    SpringInitializrTui(InitializrClient client) {
+        this.client = client;
+        this.zipPrefetcher = new ZipPrefetcher(client);
+        this.buildPreview = new BuildPreviewPane(client::previewBuildFile);
+    }
+
     @Override
     protected void onStart() {
         ThemeManager.setTheme(configStore.load().getTheme());
@@ -62,7 +82,10 @@ public class SpringInitializrTui extends ToolkitApp {
                 splashProgress = 0.3;
                 splashMessage = "Fetching metadata...";
 
-                metadata = client.fetchMetadata();
+                var loader = new MetadataLoader(client, metadataCache,
+                        Duration.ofHours(configStore.load().getMetadataMaxStalenessHours()));
+                var loaded = loader.load();
+                metadata = loaded.metadata();
 
                 splashProgress = 0.7;
                 splashMessage = "Loading dependencies...";
@@ -78,6 +101,13 @@ public class SpringInitializrTui extends ToolkitApp {
                 config.setApplicationFormat(prefs.getLastApplicationFormat());
 
                 mainScreen = new MainScreen(metadata, config, prefs.recentDependencies());
+                mainScreen.setBuildPreview(buildPreview);
+                mainScreen.setOnSelectionChanged(this::configMayHaveChanged);
+                if (loaded.source() == MetadataLoader.Source.SNAPSHOT) {
+                    mainScreen.setStatusBadge(loaded.fetchedAt() != null
+                            ? "offline snapshot from " + LocalDate.ofInstant(loaded.fetchedAt(), ZoneOffset.UTC)
+                            : "offline snapshot");
+                }
 
                 splashProgress = 1.0;
                 splashMessage = "";
@@ -85,14 +115,38 @@ public class SpringInitializrTui extends ToolkitApp {
                 Thread.sleep(1000);
 
                 currentScreen = Screen.MAIN;
+                // Only notes the starting config; prefetching waits for the user's first change
+                zipPrefetcher.observe(config);
+
+                if (loaded.source() != MetadataLoader.Source.NETWORK) {
+                    revalidateMetadata(loader);
+                }
             } catch (Exception e) {
                 splashMessage = "Failed to connect: " + e.getMessage();
             }
         });
     }
 
+    private void revalidateMetadata(MetadataLoader loader) {
+        CompletableFuture.runAsync(() -> {
+            try {
+                loader.revalidate().ifPresent(fresh -> pendingMetadata = fresh.metadata());
+            } catch (Exception e) {
+                // Keep using the cached copy; it is revalidated again on the next launch
+            }
+        });
+    }
+
     @Override
     protected Element render() {
+        var fresh = pendingMetadata;
+        if (fresh != null && mainScreen != null) {
+            pendingMetadata = null;
+            metadata = fresh;
+            mainScreen.updateMetadata(fresh);
+            mainScreen.setStatusBadge(null);
+        }
+
         Element content = switch (currentScreen) {
             case SPLASH -> new SplashScreen(splashProgress, splashMessage).render();
             case MAIN -> mainScreen != null ? mainScreen.render() : text("Loading...").fg(ThemeManager.current().primary());
@@ -113,13 +167,28 @@ public class SpringInitializrTui extends ToolkitApp {
             return EventResult.HANDLED;
         }
 
-        return switch (currentScreen) {
+        var result = switch (currentScreen) {
             case SPLASH -> EventResult.UNHANDLED;
             case MAIN -> handleMainScreenKey(event);
             case EXPLORE -> handleExploreScreenKey(event);
             case GENERATE -> handleGenerateScreenKey(event);
             case HELP -> handleHelpScreenKey(event);
         };
+        if (currentScreen == Screen.MAIN && mainScreen != null) {
+            configMayHaveChanged();
+        }
+        return result;
+    }
+
+    /**
+     * Let the prefetcher and the preview pane catch up with the config; both only act if
+     * its fingerprint changed, which is worked out once for the two. Also called from the
+     * dependency search worker.
+     */
+    private void configMayHaveChanged() {
+        String fingerprint = config.fingerprint();
+        zipPrefetcher.observe(config, fingerprint);
+        buildPreview.refresh(config, fingerprint);
     }
 
     private EventResult handleMainScreenKey(KeyEvent event) {
@@ -183,6 +252,12 @@ public class SpringInitializrTui extends ToolkitApp {
             return EventResult.HANDLED;
         }
 
+        // p — Toggle the live build file preview (when not in a text field); Ctrl+P moves up
+        if (event.isChar('p') && !event.hasCtrl() && !event.hasAlt() && !isTextFieldFocused()) {
+            buildPreview.toggle(config);
+            return EventResult.HANDLED;
+        }
+
         // c — Cycle category filter (when not in a text field)
         if (event.isChar('c') && !isTextFieldFocused()) {
             mainScreen.cycleCategory();
@@ -363,10 +438,6 @@ public class SpringInitializrTui extends ToolkitApp {
         };
     }
 
-    private static final Set<String> SKIP_EXTENSIONS = Set.of(
-            ".jar", ".class", ".png", ".jpg", ".jpeg", ".gif", ".ico", ".exe", ".bin"
-    );
-
     private static final Set<String> SKIP_FILES = Set.of(
             "mvnw", "mvnw.cmd", "gradlew", "gradlew.bat"
     );
@@ -374,8 +445,8 @@ public class SpringInitializrTui extends ToolkitApp {
     private void startExplore() {
         CompletableFuture.runAsync(() -> {
             try {
-                byte[] zipBytes = client.fetchProjectZip(config);
-                var files = extractZipToMap(zipBytes, config.getProjectType());
+                var archive = zipPrefetcher.fetchArchive(config);
+                var files = extractZipToMap(archive, config.getProjectType());
                 exploreScreen = new ExploreScreen(files);
                 currentScreen = Screen.EXPLORE;
             } catch (Exception e) {
@@ -384,7 +455,7 @@ public class SpringInitializrTui extends ToolkitApp {
         });
     }
 
-    private LinkedHashMap<String, String> extractZipToMap(byte[] zipBytes, String projectType) throws IOException {
+    private LinkedHashMap<String, String> extractZipToMap(ZipArchive archive, String projectType) throws IOException {
         // Determine the build file name to put first
         String buildFileName = switch (projectType) {
             case "gradle-project" -> "build.gradle";
@@ -396,52 +467,38 @@ public class SpringInitializrTui extends ToolkitApp {
         String buildFileContent = null;
         String buildFileKey = null;
 
-        try (var zis = new ZipInputStream(new ByteArrayInputStream(zipBytes))) {
-            ZipEntry entry;
-            while ((entry = zis.getNextEntry()) != null) {
-                if (entry.isDirectory()) continue;
-
-                String name = entry.getName();
-                // Strip leading directory (e.g., "demo/pom.xml" -> "pom.xml")
-                int slash = name.indexOf('/');
-                String relativeName = slash >= 0 ? name.substring(slash + 1) : name;
-                if (relativeName.isEmpty()) continue;
-
-                // Skip binary files and wrapper scripts
-                String simpleName = relativeName.contains("/")
-                        ? relativeName.substring(relativeName.lastIndexOf('/') + 1)
-                        : relativeName;
-                if (SKIP_FILES.contains(simpleName)) continue;
-                boolean skip = false;
-                for (String ext : SKIP_EXTENSIONS) {
-                    if (simpleName.toLowerCase().endsWith(ext)) { skip = true; break; }
-                }
-                if (skip) continue;
-
-                String content = new String(zis.readAllBytes(), StandardCharsets.UTF_8);
-
-                if (simpleName.equals(buildFileName)) {
-                    buildFileKey = relativeName;
-                    buildFileContent = content;
-                } else {
-                    allFiles.put(relativeName, content);
-                }
+        var transform = entryTransform();
+        for (var entry : archive.entries()) {
+            if (entry.isDirectory()) continue;
+
+            String name = transform.targetName(entry.name());
+            // Strip leading directory (e.g., "demo/pom.xml" -> "pom.xml")
+            int slash = name.indexOf('/');
+            String relativeName = slash >= 0 ? name.substring(slash + 1) : name;
+            if (relativeName.isEmpty()) continue;
+
+            // Skip wrapper scripts
+            String simpleName = relativeName.contains("/")
+                    ? relativeName.substring(relativeName.lastIndexOf('/') + 1)
+                    : relativeName;
+            if (SKIP_FILES.contains(simpleName)) continue;
+
+            // Binary files are recognized by their first few KB and never read in full
+            String content;
+            try (var raw = archive.open(entry);
+                 var in = ZipExtractor.transformed(transform, entry.name(), raw)) {
+                content = ContentSniffer.readText(in);
+            }
+            if (content == null) {
+                content = "Binary file, " + GenerateScreen.formatBytes(entry.size()) + " (not shown)";
             }
-        }
 
-        // Convert application.properties to application.yml if YAML format selected
-        if ("yaml".equals(config.getApplicationFormat())) {
-            var converted = new TreeMap<String, String>();
-            for (var entry2 : allFiles.entrySet()) {
-                String key = entry2.getKey();
-                if (key.endsWith("application.properties")) {
-                    String ymlKey = key.replace("application.properties", "application.yml");
-                    converted.put(ymlKey, propertiesToYaml(entry2.getValue()));
-                } else {
-                    converted.put(key, entry2.getValue());
-                }
+            if (simpleName.equals(buildFileName)) {
+                buildFileKey = relativeName;
+                buildFileContent = content;
+            } else {
+                allFiles.put(relativeName, content);
             }
-            allFiles = converted;
         }
 
         // Build file first, then remaining sorted alphabetically
@@ -459,16 +516,24 @@ public class SpringInitializrTui extends ToolkitApp {
 
         CompletableFuture.runAsync(() -> {
             try {
-                generateScreen.setGenerating(0.3, "Downloading project...");
-
                 Path outputDir = Path.of("").toAbsolutePath();
-                Path zipPath = client.generateProject(config, outputDir);
-
-                generateScreen.setGenerating(0.6, "Extracting project...");
-
                 Path projectDir = outputDir.resolve(config.getArtifactId());
-                extractZip(zipPath, projectDir);
-                Files.deleteIfExists(zipPath);
+
+                String fingerprint = config.fingerprint();
+                if (blobStore.materialize(fingerprint, projectDir)) {
+                    // Generated with this exact config before: no download needed
+                    generateScreen.setGenerating(0.6, "Restored project from local store");
+                } else {
+                    var prefetched = zipPrefetcher.prefetchedArchive(config);
+                    if (prefetched != null) {
+                        generateScreen.setGenerating(0.6, "Extracting project...");
+                        blobStore.store(fingerprint, prefetched, projectDir, entryTransform());
+                    } else {
+                        // Unzipped into the store as it downloads; no intermediate file
+                        client.downloadProject(config, generateScreen::setDownloadProgress,
+                                zip -> blobStore.store(fingerprint, zip, projectDir, entryTransform()));
+                    }
+                }
 
                 generateScreen.setGenerating(0.8, "Detecting IDEs...");
 
@@ -520,80 +585,11 @@ public class SpringInitializrTui extends ToolkitApp {
         }
     }
 
-    private void extractZip(Path zipPath, Path destDir) throws IOException {
-        Files.createDirectories(destDir);
-        try (var zis = new ZipInputStream(Files.newInputStream(zipPath))) {
-            ZipEntry entry;
-            while ((entry = zis.getNextEntry()) != null) {
-                Path entryPath = destDir.resolve(entry.getName()).normalize();
-                if (!entryPath.startsWith(destDir)) {
-                    throw new IOException("Bad zip entry: " + entry.getName());
-                }
-                if (entry.isDirectory()) {
-                    Files.createDirectories(entryPath);
-                } else {
-                    Files.createDirectories(entryPath.getParent());
-                    Files.copy(zis, entryPath, StandardCopyOption.REPLACE_EXISTING);
-                }
-            }
-        }
-
-        if ("yaml".equals(config.getApplicationFormat())) {
-            convertPropertiesToYaml(destDir);
-        }
-    }
-
-    private void convertPropertiesToYaml(Path projectDir) throws IOException {
-        try (var stream = Files.walk(projectDir)) {
-            var propsFiles = stream
-                    .filter(p -> p.getFileName().toString().equals("application.properties"))
-                    .toList();
-            for (Path propsFile : propsFiles) {
-                String content = Files.readString(propsFile);
-                String yaml = propertiesToYaml(content);
-                Path yamlFile = propsFile.resolveSibling("application.yml");
-                Files.writeString(yamlFile, yaml);
-                Files.delete(propsFile);
-            }
-        }
-    }
-
-    static String propertiesToYaml(String properties) {
-        var lines = properties.lines().toList();
-        var sb = new StringBuilder();
-        String[] prevParts = new String[0];
-
-        for (String line : lines) {
-            String trimmed = line.trim();
-            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
-                sb.append(trimmed).append('\n');
-                continue;
-            }
-            int eq = trimmed.indexOf('=');
-            if (eq < 0) {
-                sb.append(trimmed).append('\n');
-                continue;
-            }
-            String key = trimmed.substring(0, eq).trim();
-            String value = trimmed.substring(eq + 1).trim();
-            String[] parts = key.split("\\.");
-
-            // Find common prefix with previous key
-            int common = 0;
-            for (int i = 0; i < Math.min(parts.length - 1, prevParts.length - 1); i++) {
-                if (parts[i].equals(prevParts[i])) common++;
-                else break;
-            }
-
-            // Write each new nesting level
-            for (int i = common; i < parts.length - 1; i++) {
-                sb.append("  ".repeat(i)).append(parts[i]).append(":\n");
-            }
-            int indent = parts.length - 1;
-            sb.append("  ".repeat(indent)).append(parts[parts.length - 1]).append(": ").append(value).append('\n');
-            prevParts = parts;
-        }
-        return sb.toString();
+    /**
+     * Rewrites applied to the project while it is extracted, to disk or for Explore.
+     */
+    private EntryTransform entryTransform() {
+        return "yaml".equals(config.getApplicationFormat()) ? new PropertiesToYaml() : EntryTransform.NONE;
     }
 
     private Element renderExploreScreen() {
@@ -627,9 +623,17 @@ public class SpringInitializrTui extends ToolkitApp {
     }
 
     public static void main(String[] args) throws Exception {
-        var app = new SpringInitializrTui();
+        // Start DNS, TLS and HTTP/2 setup first so it overlaps with terminal setup and config loading
+        var client = new InitializrClient();
+        client.prewarm();
+
+        var app = new SpringInitializrTui(client);
         app.run();
 
+        if (Arrays.asList(args).contains("--stats")) {
+            System.out.println(client.stats().format());
+        }
+
         // Print project directory for "Open in Terminal" option
         if (app.pendingTerminalDir != null) {
             System.out.println();
@@ -0,0 +1,157 @@
+package dev.danvega.initializr.api;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-request phase timings and event counters collected by {@link InitializrClient},
+ * printed after exit when the TUI is started with {@code --stats}. Memory stays bounded
+ * however long the TUI runs: only the most recent requests are kept for printing, and
+ * percentiles are taken over a fixed window of recent samples per label and phase.
+ */
+public class ClientStats {
+
+    static final int RECENT_TIMINGS = 100;
+    static final int SAMPLE_WINDOW = 128;
+
+    private final Deque<Timing> timings = new ArrayDeque<>();
+    private long droppedTimings;
+    private final Map<String, Samples> samples = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+
+    /**
+     * Start timing a request. Phases are recorded in the order they complete.
+     */
+    public Timing begin(String label) {
+        var timing = new Timing(label);
+        synchronized (timings) {
+            if (timings.size() == RECENT_TIMINGS) {
+                timings.removeFirst();
+                droppedTimings++;
+            }
+            timings.addLast(timing);
+        }
+        return timing;
+    }
+
+    /**
+     * Count an event such as a retry or a hedged request.
+     */
+    public void increment(String counter) {
+        add(counter, 1);
+    }
+
+    public void add(String counter, long amount) {
+        counters.computeIfAbsent(counter, _ -> new LongAdder()).add(amount);
+    }
+
+    public long count(String counter) {
+        var adder = counters.get(counter);
+        return adder != null ? adder.sum() : 0;
+    }
+
+    /**
+     * Report a value owned elsewhere (such as a cache's hit count), read when formatting.
+     */
+    public void register(String name, LongSupplier gauge) {
+        gauges.put(name, gauge);
+    }
+
+    /**
+     * The given percentile of a phase over the last {@link #SAMPLE_WINDOW} requests with
+     * this label that recorded it, or {@code null} when fewer than {@code minSamples} have.
+     */
+    public Duration percentile(String label, String phase, double percentile, int minSamples) {
+        var window = samples.get(key(label, phase));
+        var sorted = window != null ? window.sorted() : new long[0];
+        if (sorted.length < minSamples || sorted.length == 0) return null;
+        int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return Duration.ofNanos(sorted[Math.clamp(index, 0, sorted.length - 1)]);
+    }
+
+    public String format() {
+        var sb = new StringBuilder("start.spring.io timings (ms):\n");
+        synchronized (timings) {
+            if (droppedTimings > 0) {
+                sb.append(String.format("  (last %d of %d requests)%n", timings.size(), timings.size() + droppedTimings));
+            }
+            for (var timing : timings) {
+                sb.append(String.format("  %-12s %s%n", timing.label, timing));
+            }
+        }
+        var values = new TreeMap<String, Long>();
+        counters.forEach((name, adder) -> values.put(name, adder.sum()));
+        gauges.forEach((name, gauge) -> values.put(name, gauge.getAsLong()));
+        if (!values.isEmpty()) {
+            sb.append("counters:\n");
+            values.forEach((name, value) -> sb.append(String.format("  %-24s %d%n", name, value)));
+        }
+        return sb.toString();
+    }
+
+    private static String key(String label, String phase) {
+        return label + ' ' + phase;
+    }
+
+    /**
+     * The last {@link #SAMPLE_WINDOW} durations recorded for one label and phase.
+     */
+    private static final class Samples {
+
+        private final long[] nanos = new long[SAMPLE_WINDOW];
+        private int count;
+
+        synchronized void add(long value) {
+            nanos[count++ % SAMPLE_WINDOW] = value;
+        }
+
+        synchronized long[] sorted() {
+            var copy = Arrays.copyOf(nanos, Math.min(count, SAMPLE_WINDOW));
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+
+    /**
+     * Phases of a single request, such as dns, connect+tls, ttfb and body.
+     */
+    public final class Timing {
+
+        private final String label;
+        private final Map<String, Long> phases = new LinkedHashMap<>();
+
+        private Timing(String label) {
+            this.label = label;
+        }
+
+        /**
+         * Record a phase that started at {@code startNanos} ({@link System#nanoTime()}) and ends now.
+         */
+        public synchronized void record(String phase, long startNanos) {
+            long elapsed = System.nanoTime() - startNanos;
+            phases.merge(phase, elapsed, Long::sum);
+            samples.computeIfAbsent(key(label, phase), _ -> new Samples()).add(elapsed);
+        }
+
+        public synchronized Map<String, Long> phases() {
+            return Map.copyOf(phases);
+        }
+
+        @Override
+        public synchronized String toString() {
+            var joiner = new StringJoiner("  ");
+            phases.forEach((phase, nanos) -> joiner.add(phase + " " + nanos / 1_000_000));
+            return joiner.toString();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package dev.danvega.initializr.api;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Flattened, read-only index over the dependency catalog. Dependencies are
+ * addressed by ordinal (their position in catalog order) and each category is a
+ * contiguous ordinal range, so lookups and category filters are plain array
+ * accesses instead of walks over nested lists.
+ * <p>
+ * This is an index, not a more compact copy: the arrays point at the same
+ * {@link InitializrMetadata.Dependency} records the metadata holds, so it adds
+ * a little memory on top of the parsed model rather than saving any.
+ */
+public final class DependencyCatalog {
+
+    private final String[] categoryNames;
+    private final int[] categoryStart;
+    private final InitializrMetadata.Dependency[] dependencies;
+    private final int[] categoryOf;
+    private final Map<String, Integer> ordinalById;
+
+    private DependencyCatalog(String[] categoryNames, int[] categoryStart,
+                              InitializrMetadata.Dependency[] dependencies, int[] categoryOf) {
+        this.categoryNames = categoryNames;
+        this.categoryStart = categoryStart;
+        this.dependencies = dependencies;
+        this.categoryOf = categoryOf;
+        this.ordinalById = HashMap.newHashMap(dependencies.length);
+        for (int i = 0; i < dependencies.length; i++) {
+            ordinalById.putIfAbsent(dependencies[i].id(), i);
+        }
+    }
+
+    public static DependencyCatalog of(List<InitializrMetadata.DependencyCategory> categories) {
+        int total = 0;
+        for (var category : categories) {
+            total += category.values() != null ? category.values().size() : 0;
+        }
+
+        var names = new String[categories.size()];
+        var starts = new int[categories.size() + 1];
+        var deps = new InitializrMetadata.Dependency[total];
+        var owners = new int[total];
+        int ordinal = 0;
+        for (int c = 0; c < categories.size(); c++) {
+            var category = categories.get(c);
+            names[c] = category.name() != null ? category.name() : "";
+            starts[c] = ordinal;
+            if (category.values() == null) continue;
+            for (var dep : category.values()) {
+                deps[ordinal] = dep;
+                owners[ordinal] = c;
+                ordinal++;
+            }
+        }
+        starts[categories.size()] = ordinal;
+        return new DependencyCatalog(names, starts, deps, owners);
+    }
+
+    /** Number of dependencies across all categories. */
+    public int size() { return dependencies.length; }
+
+    public int categoryCount() { return categoryNames.length; }
+
+    public String categoryName(int category) { return categoryNames[category]; }
+
+    /** First ordinal of the given category (inclusive). */
+    public int categoryStart(int category) { return categoryStart[category]; }
+
+    /** End ordinal of the given category (exclusive). */
+    public int categoryEnd(int category) { return categoryStart[category + 1]; }
+
+    public InitializrMetadata.Dependency dependency(int ordinal) { return dependencies[ordinal]; }
+
+    /** Index of the category the dependency at {@code ordinal} belongs to. */
+    public int categoryOf(int ordinal) { return categoryOf[ordinal]; }
+
+    /** Ordinal of the dependency with the given id, or -1 if unknown. */
+    public int ordinalOf(String id) {
+        Integer ordinal = ordinalById.get(id);
+        return ordinal != null ? ordinal : -1;
+    }
+}
@@ -1,28 +1,72 @@
 package dev.danvega.initializr.api;
 
 import dev.danvega.initializr.model.ProjectConfig;
+import dev.danvega.initializr.util.CountingInputStream;
+import dev.danvega.initializr.util.LruCache;
+import dev.danvega.initializr.util.ZipExtractor;
 import tools.jackson.databind.json.JsonMapper;
 
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.net.InetAddress;
 import java.net.URI;
 import java.net.URLEncoder;
 import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
 
 /**
  * HTTP client for the Spring Initializr API at start.spring.io.
+ * A single {@link HttpClient} (and so a single multiplexed HTTP/2 connection)
+ * serves metadata, build file previews and project downloads.
  */
 public class InitializrClient {
 
-    private static final String BASE_URL = "https://start.spring.io";
+    private static final String DEFAULT_BASE_URL = "https://start.spring.io";
     private static final String USER_AGENT = loadUserAgent();
+    // Only these are hedged: a duplicate starter.zip download would waste real bandwidth
+    private static final Set<String> HEDGED = Set.of("metadata", "preview");
+    // Once this many samples exist, the observed p95 time to first byte replaces the configured hedge delay
+    private static final int HEDGE_MIN_SAMPLES = 20;
+    private static final int PREVIEW_CACHE_ENTRIES = 64;
+    private static final long PREVIEW_CACHE_BYTES = 2 * 1024 * 1024;
+    private static final String ACCEPT_ENCODING = "gzip, deflate";
+    private static final int DECODE_BUFFER = 16 * 1024;
+    private static final ScheduledExecutorService WATCHDOG = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("initializr-read-timeout").daemon().factory());
+    private final String baseUrl;
+    private final RequestPolicy policy;
     private final HttpClient httpClient;
     private final JsonMapper jsonMapper;
+    private final ClientStats stats = new ClientStats();
+    private final LruCache<String, String> previewCache =
+            new LruCache<>(PREVIEW_CACHE_ENTRIES, PREVIEW_CACHE_BYTES, InitializrClient::heapBytes);
+    private volatile Warmup warmup;
+
+    private record Warmup(CompletableFuture<Void> done, long startedAt) {}
 
     private static String loadUserAgent() {
         try (var in = InitializrClient.class.getResourceAsStream("/application.properties")) {
@@ -40,29 +84,152 @@ public class InitializrClient {
         return "SpringInitializrTUI";
     }
 
+    /**
+     * Result of a (possibly conditional) metadata request. The body is streamed straight
+     * from the connection and is {@code null} when the server answered 304 Not Modified;
+     * close the response once the body has been consumed.
+     */
+    public record MetadataResponse(int statusCode, InputStream body, String etag, String lastModified)
+            implements AutoCloseable {
+        public boolean notModified() {
+            return statusCode == 304;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (body != null) body.close();
+        }
+    }
+
     public InitializrClient() {
+        this(DEFAULT_BASE_URL);
+    }
+
+    public InitializrClient(String baseUrl) {
+        this(baseUrl, RequestPolicy.defaults());
+    }
+
+    public InitializrClient(String baseUrl, RequestPolicy policy) {
+        this.baseUrl = baseUrl;
+        this.policy = policy;
         this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(policy.connectTimeout())
                 .followRedirects(HttpClient.Redirect.NORMAL)
                 .build();
         this.jsonMapper = JsonMapper.builder().build();
+        stats.register("preview.cache-hits", previewCache::hits);
+        stats.register("preview.cache-misses", previewCache::misses);
+    }
+
+    /**
+     * Bytes of character data {@code s} takes on the heap at most: a build file that
+     * carries a non-Latin-1 name or description is stored at two bytes per char.
+     */
+    static long heapBytes(String s) {
+        return 2L * s.length();
+    }
+
+    public ClientStats stats() {
+        return stats;
+    }
+
+    /**
+     * Resolve the host and open the (TLS, HTTP/2) connection in the background so that
+     * it is ready by the time the first real request is made. Requests issued while
+     * the warm-up is still running wait for it and then reuse its connection instead
+     * of racing it with a second handshake, but only for up to the connect timeout from
+     * the start of the warm-up. Failures are ignored; the first request then simply
+     * connects on its own.
+     * <p>
+     * {@link HttpClient} does not report connect and TLS times separately, so after the
+     * DNS lookup the warm-up HEAD is recorded as one {@code connect+tls} phase, which
+     * also includes its round trip.
+     */
+    public void prewarm() {
+        long startedAt = System.nanoTime();
+        warmup = new Warmup(CompletableFuture.runAsync(() -> {
+            var timing = stats.begin("prewarm");
+            try {
+                var uri = URI.create(baseUrl);
+                long start = System.nanoTime();
+                // Populates the JVM's address cache, which the HttpClient resolves from
+                InetAddress.getAllByName(uri.getHost());
+                timing.record("dns", start);
+
+                start = System.nanoTime();
+                var request = HttpRequest.newBuilder()
+                        .uri(uri)
+                        .header("User-Agent", USER_AGENT)
+                        .timeout(policy.readTimeout())
+                        .method("HEAD", HttpRequest.BodyPublishers.noBody())
+                        .build();
+                httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                timing.record("connect+tls", start);
+            } catch (IOException e) {
+                // Silently fail — the first real request connects on its own
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }), startedAt);
     }
 
     /**
      * Fetch metadata (boot versions, dependencies, languages, etc.) from the API.
      */
     public InitializrMetadata.Metadata fetchMetadata() throws IOException, InterruptedException {
-        var request = HttpRequest.newBuilder()
-                .uri(URI.create(BASE_URL))
+        try (var response = fetchMetadata(null, null)) {
+            return parseMetadata(response.body());
+        }
+    }
+
+    /**
+     * Request the metadata JSON, sending If-None-Match / If-Modified-Since when
+     * validators from a previous response are supplied.
+     */
+    public MetadataResponse fetchMetadata(String etag, String lastModified) throws IOException, InterruptedException {
+        var builder = HttpRequest.newBuilder()
+                .uri(URI.create(baseUrl))
                 .header("User-Agent", USER_AGENT)
                 .header("Accept", "application/json")
-                .GET()
-                .build();
+                .GET();
+        if (etag != null) builder.header("If-None-Match", etag);
+        if (lastModified != null) builder.header("If-Modified-Since", lastModified);
 
-        var response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        var response = send("metadata", builder.build());
+        var headers = response.headers();
+        if (response.statusCode() == 304) {
+            response.body().close();
+            return new MetadataResponse(304, null,
+                    headers.firstValue("ETag").orElse(etag),
+                    headers.firstValue("Last-Modified").orElse(lastModified));
+        }
         if (response.statusCode() != 200) {
+            response.body().close();
             throw new IOException("Failed to fetch metadata: HTTP " + response.statusCode());
         }
-        return jsonMapper.readValue(response.body(), InitializrMetadata.Metadata.class);
+        return new MetadataResponse(200, response.body(),
+                headers.firstValue("ETag").orElse(null),
+                headers.firstValue("Last-Modified").orElse(null));
+    }
+
+    /**
+     * Parse a metadata JSON document incrementally from a stream, without buffering it as a String.
+     * Unknown properties (such as each dependency's {@code _links}) are skipped by the parser.
+     * Failures reading the stream (e.g. a read timeout) are rethrown as the underlying IOException.
+     */
+    public InitializrMetadata.Metadata parseMetadata(InputStream json) throws IOException {
+        try {
+            return jsonMapper.readValue(json, InitializrMetadata.Metadata.class);
+        } catch (RuntimeException e) {
+            // Jackson wraps I/O errors in an unchecked exception
+            if (e.getCause() instanceof IOException io) throw io;
+            throw e;
+        }
+    }
+
+    public InitializrMetadata.Metadata parseMetadata(String json) {
+        return jsonMapper.readValue(json, InitializrMetadata.Metadata.class);
     }
 
     /**
@@ -74,6 +241,7 @@ public class InitializrClient {
 
     /**
      * Preview a specific build file format regardless of the project's configured type.
+     * Results are cached in memory, keyed by the config's fingerprint and the project type.
      */
     public String previewBuildFile(ProjectConfig config, String projectType) throws IOException, InterruptedException {
         String endpoint = switch (projectType) {
@@ -82,58 +250,314 @@ public class InitializrClient {
             case "gradle-project-kotlin" -> "/build.gradle.kts";
             default -> "/pom.xml";
         };
-        return fetchBuildFile(endpoint, config);
+        // Keyed by content rather than by request: equivalent configs share an entry
+        String key = projectType + "#" + config.fingerprint();
+        String cached = previewCache.get(key);
+        if (cached != null) return cached;
+
+        String buildFile = fetchBuildFile(endpoint, config);
+        previewCache.put(key, buildFile);
+        return buildFile;
     }
 
     private String fetchBuildFile(String endpoint, ProjectConfig config) throws IOException, InterruptedException {
-        var uri = URI.create(BASE_URL + endpoint + "?" + buildQueryString(config));
+        var uri = URI.create(baseUrl + endpoint + "?" + buildQueryString(config));
         var request = HttpRequest.newBuilder()
                 .uri(uri)
                 .GET()
                 .build();
 
-        var response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-        if (response.statusCode() != 200) {
-            throw new IOException("Failed to preview build file: HTTP " + response.statusCode());
+        var response = send("preview", request);
+        try (var body = response.body()) {
+            if (response.statusCode() != 200) {
+                throw new IOException("Failed to preview build file: HTTP " + response.statusCode());
+            }
+            return new String(body.readAllBytes(), StandardCharsets.UTF_8);
         }
-        return response.body();
     }
 
     /**
      * Fetch the project ZIP into memory as a byte array.
      */
     public byte[] fetchProjectZip(ProjectConfig config) throws IOException, InterruptedException {
-        var uri = URI.create(BASE_URL + "/starter.zip?" + buildQueryString(config));
+        try (var body = openProjectZip(config)) {
+            return body.readAllBytes();
+        }
+    }
+
+    /**
+     * Request the project ZIP and return its body as it streams in; the caller must close it.
+     */
+    public InputStream openProjectZip(ProjectConfig config) throws IOException, InterruptedException {
+        var uri = URI.create(baseUrl + "/starter.zip?" + buildQueryString(config));
         var request = HttpRequest.newBuilder()
                 .uri(uri)
                 .GET()
                 .build();
 
-        var response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        var response = send("starter.zip", request);
         if (response.statusCode() != 200) {
+            response.body().close();
             throw new IOException("Failed to fetch project ZIP: HTTP " + response.statusCode());
         }
         return response.body();
     }
 
     /**
-     * Generate and download the project ZIP file.
-     * Returns the path to the downloaded ZIP.
+     * Receives download progress; {@code totalBytes} is -1 when the server sends no length.
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        void onProgress(long bytesRead, long totalBytes);
+    }
+
+    /**
+     * Consumes a project ZIP as it streams in.
+     */
+    @FunctionalInterface
+    public interface ZipHandler {
+        void accept(InputStream zip) throws IOException;
+    }
+
+    /**
+     * Generate the project and extract it into {@code destDir} while it downloads:
+     * the response body is unzipped as it streams in, with no intermediate ZIP file.
      */
-    public Path generateProject(ProjectConfig config, Path outputDir) throws IOException, InterruptedException {
-        var uri = URI.create(BASE_URL + "/starter.zip?" + buildQueryString(config));
+    public void generateProject(ProjectConfig config, Path destDir, ProgressListener progress)
+            throws IOException, InterruptedException {
+        downloadProject(config, progress, zip -> ZipExtractor.extract(zip, destDir));
+    }
+
+    /**
+     * Download the project ZIP and hand its body to {@code handler} as it streams in,
+     * reporting progress as the handler reads.
+     */
+    public void downloadProject(ProjectConfig config, ProgressListener progress, ZipHandler handler)
+            throws IOException, InterruptedException {
+        var uri = URI.create(baseUrl + "/starter.zip?" + buildQueryString(config));
         var request = HttpRequest.newBuilder()
                 .uri(uri)
                 .GET()
                 .build();
 
-        var zipPath = outputDir.resolve(config.getArtifactId() + ".zip");
-        var response = httpClient.send(request, HttpResponse.BodyHandlers.ofFile(zipPath));
-        if (response.statusCode() != 200) {
-            Files.deleteIfExists(zipPath);
-            throw new IOException("Failed to generate project: HTTP " + response.statusCode());
+        var response = send("starter.zip", request);
+        try (var body = response.body()) {
+            if (response.statusCode() != 200) {
+                throw new IOException("Failed to generate project: HTTP " + response.statusCode());
+            }
+            long total = response.contentLength();
+            handler.accept(new CountingInputStream(body, read -> progress.onProgress(read, total)));
+        }
+    }
+
+    /**
+     * Response whose body is streamed from the connection (already decoded); the body must be closed.
+     */
+    private record Response(int statusCode, HttpHeaders headers, InputStream body) {
+
+        /**
+         * Length of the decoded body, or -1 when unknown: Content-Length counts encoded bytes.
+         */
+        long contentLength() {
+            if (headers.firstValue("Content-Encoding").filter(e -> !e.equalsIgnoreCase("identity")).isPresent()) {
+                return -1;
+            }
+            return headers.firstValueAsLong("Content-Length").orElse(-1);
+        }
+    }
+
+    /**
+     * Send an idempotent GET over the shared connection. Connection failures, timeouts,
+     * 429 and 5xx responses are retried with jittered exponential backoff, and metadata
+     * and preview requests are hedged. Records any time spent waiting for the warm-up,
+     * time to first byte and (once the body has been read or closed) body transfer time.
+     * Failures while the caller reads the
+     * body are not retried, since part of it may already have been consumed.
+     * <p>
+     * gzip and deflate are accepted; a compressed body is decoded as it streams in, and
+     * the bytes received and decoded are counted as {@code <label>.bytes-received} and
+     * {@code <label>.bytes-decoded}.
+     */
+    private Response send(String label, HttpRequest request) throws IOException, InterruptedException {
+        var timing = stats.begin(label);
+        awaitWarmup(timing);
+        request = HttpRequest.newBuilder(request, (_, _) -> true)
+                .timeout(policy.readTimeout())
+                .setHeader("Accept-Encoding", ACCEPT_ENCODING)
+                .build();
+        for (int attempt = 1; ; attempt++) {
+            // Per attempt, so time spent in backoff does not count towards time to first byte
+            long start = System.nanoTime();
+            try {
+                var response = policy.hedging() && HEDGED.contains(label)
+                        ? sendHedged(label, request)
+                        : httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+                if (!isRetryable(response.statusCode()) || attempt >= policy.maxAttempts()) {
+                    timing.record("ttfb", start);
+                    var received = countBytes(new TimedBody(response.body(), timing, policy.readTimeout()),
+                            label + ".bytes-received");
+                    return new Response(response.statusCode(), response.headers(),
+                            countBytes(decode(received, response), label + ".bytes-decoded"));
+                }
+                response.body().close();
+            } catch (IOException e) {
+                if (attempt >= policy.maxAttempts()) throw e;
+            }
+            stats.increment(label + ".retries");
+            Thread.sleep(policy.backoff(attempt).toMillis());
         }
-        return response.body();
+    }
+
+    /**
+     * Wrap the body in a decoder for its Content-Encoding. Empty bodies (304s, errors
+     * without content) are passed through, since a gzip header cannot be read from them.
+     */
+    private static InputStream decode(InputStream body, HttpResponse<?> response) throws IOException {
+        String encoding = response.headers().firstValue("Content-Encoding").orElse("identity").trim();
+        if (encoding.equalsIgnoreCase("identity") || response.statusCode() == 304
+                || response.headers().firstValueAsLong("Content-Length").orElse(-1) == 0) {
+            return body;
+        }
+        try {
+            return switch (encoding.toLowerCase(Locale.ROOT)) {
+                case "gzip", "x-gzip" -> new GZIPInputStream(body, DECODE_BUFFER);
+                case "deflate" -> inflate(body);
+                default -> throw new IOException("Unsupported Content-Encoding: " + encoding);
+            };
+        } catch (IOException e) {
+            closeQuietly(body);
+            throw e;
+        }
+    }
+
+    /**
+     * "deflate" is meant to be zlib-wrapped, but some servers send a raw deflate stream;
+     * peek at the header to tell them apart.
+     */
+    private static InputStream inflate(InputStream body) throws IOException {
+        var in = new PushbackInputStream(body, 2);
+        int b0 = in.read();
+        int b1 = in.read();
+        if (b1 >= 0) in.unread(b1);
+        if (b0 >= 0) in.unread(b0);
+        boolean zlib = b0 >= 0 && b1 >= 0 && (b0 & 0x0F) == 8 && ((b0 << 8) | b1) % 31 == 0;
+        return new InflaterInputStream(in, new Inflater(!zlib), DECODE_BUFFER) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    // A caller-supplied Inflater is not released by close()
+                    inf.end();
+                }
+            }
+        };
+    }
+
+    private InputStream countBytes(InputStream in, String counter) {
+        var reported = new long[1];
+        return new CountingInputStream(in, total -> {
+            stats.add(counter, total - reported[0]);
+            reported[0] = total;
+        });
+    }
+
+    private static boolean isRetryable(int statusCode) {
+        return statusCode == 429 || statusCode >= 500;
+    }
+
+    /**
+     * Send the request, and if it has not answered within the hedge delay, send it again
+     * and take whichever response arrives first. The loser is cancelled, or closed if it
+     * completed anyway; so is every response when the wait is interrupted, however late
+     * it arrives.
+     */
+    private HttpResponse<InputStream> sendHedged(String label, HttpRequest request)
+            throws IOException, InterruptedException {
+        var observed = stats.percentile(label, "ttfb", 95, HEDGE_MIN_SAMPLES);
+        Duration delay = observed != null ? observed : policy.hedgeDelay();
+
+        var primary = httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream());
+        try {
+            return primary.get(delay.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // Slower than usual: hedge below
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (InterruptedException e) {
+            discard(primary);
+            throw e;
+        }
+
+        stats.increment(label + ".hedged");
+        var backup = httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream());
+        var winner = new CompletableFuture<HttpResponse<InputStream>>();
+        var failures = new AtomicInteger();
+        for (var attempt : List.of(primary, backup)) {
+            attempt.whenComplete((response, error) -> {
+                if (error == null) {
+                    if (!winner.complete(response)) closeQuietly(response.body());
+                } else if (failures.incrementAndGet() == 2) {
+                    winner.completeExceptionally(error);
+                }
+            });
+        }
+        HttpResponse<InputStream> response = null;
+        try {
+            response = winner.get();
+            if (response != primary.getNow(null)) stats.increment(label + ".hedge-wins");
+            return response;
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } finally {
+            // Settle the race, so a response completing from now on is closed by its
+            // handler above; one that won but is not handed out is closed here
+            if (!winner.cancel(false) && response == null) discard(winner);
+            primary.cancel(true);
+            backup.cancel(true);
+        }
+    }
+
+    /**
+     * Cancel a response that will not be used, or close its body once it arrives.
+     */
+    private static void discard(CompletableFuture<HttpResponse<InputStream>> attempt) {
+        attempt.cancel(true);
+        attempt.thenAccept(response -> closeQuietly(response.body()));
+    }
+
+    private static IOException unwrap(ExecutionException e) {
+        var cause = e.getCause();
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause instanceof IOException io ? io : new IOException(cause);
+    }
+
+    private static void closeQuietly(InputStream in) {
+        try {
+            in.close();
+        } catch (IOException e) {
+            // Nothing to do — the response was never handed out
+        }
+    }
+
+    /**
+     * Wait for a warm-up in progress, but no longer than the connect timeout from its
+     * start: a warm-up taking longer than that is not going to help.
+     */
+    private void awaitWarmup(ClientStats.Timing timing) throws InterruptedException {
+        var pending = warmup;
+        if (pending == null || pending.done().isDone()) return;
+        long remaining = policy.connectTimeout().toNanos() - (System.nanoTime() - pending.startedAt());
+        if (remaining <= 0) return;
+        long start = System.nanoTime();
+        try {
+            pending.done().get(remaining, TimeUnit.NANOSECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            // Warm-up failures are not fatal; the request connects on its own
+        }
+        timing.record("warmup-wait", start);
     }
 
     private String buildQueryString(ProjectConfig config) {
@@ -159,4 +583,78 @@ public class InitializrClient {
     private static String encode(String value) {
         return URLEncoder.encode(value, StandardCharsets.UTF_8);
     }
+
+    /**
+     * Records the "body" phase when the stream reaches EOF or is closed, whichever is first,
+     * and aborts the read if no data arrives within the read timeout.
+     */
+    private static final class TimedBody extends FilterInputStream {
+
+        private final ClientStats.Timing timing;
+        private final long start = System.nanoTime();
+        private final long readTimeoutNanos;
+        private final ScheduledFuture<?> watchdog;
+        private volatile long lastProgress = start;
+        private volatile boolean timedOut;
+        private boolean recorded;
+
+        TimedBody(InputStream in, ClientStats.Timing timing, Duration readTimeout) {
+            super(in);
+            this.timing = timing;
+            this.readTimeoutNanos = readTimeout.toNanos();
+            long period = Math.max(readTimeoutNanos / 4, TimeUnit.MILLISECONDS.toNanos(10));
+            this.watchdog = WATCHDOG.scheduleWithFixedDelay(this::checkProgress, period, period, TimeUnit.NANOSECONDS);
+        }
+
+        private void checkProgress() {
+            if (System.nanoTime() - lastProgress > readTimeoutNanos) {
+                timedOut = true;
+                watchdog.cancel(false);
+                closeQuietly(in);
+            }
+        }
+
+        @Override
+        public int read() throws IOException {
+            try {
+                int b = in.read();
+                progress(b < 0);
+                return b;
+            } catch (IOException e) {
+                throw timedOut ? new HttpTimeoutException("Read timed out") : e;
+            }
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            try {
+                int n = in.read(b, off, len);
+                progress(n < 0);
+                return n;
+            } catch (IOException e) {
+                throw timedOut ? new HttpTimeoutException("Read timed out") : e;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            finish();
+            super.close();
+        }
+
+        private void progress(boolean eof) throws HttpTimeoutException {
+            // A stream closed by the watchdog may report EOF rather than fail
+            if (timedOut) throw new HttpTimeoutException("Read timed out");
+            lastProgress = System.nanoTime();
+            if (eof) finish();
+        }
+
+        private void finish() {
+            watchdog.cancel(false);
+            if (!recorded) {
+                recorded = true;
+                timing.record("body", start);
+            }
+        }
+    }
 }
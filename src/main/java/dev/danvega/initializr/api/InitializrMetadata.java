@@ -4,7 +4,6 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.util.List;
-import java.util.Map;
 
 /**
  * Records modeling the Spring Initializr API metadata response.
@@ -75,7 +74,6 @@ public final class InitializrMetadata {
             @JsonProperty("id") String id,
             @JsonProperty("name") String name,
             @JsonProperty("description") String description,
-            @JsonProperty("versionRange") String versionRange,
-            @JsonProperty("_links") Map<String, Object> links
+            @JsonProperty("versionRange") String versionRange
     ) {}
 }
@@ -0,0 +1,137 @@
+package dev.danvega.initializr.api;
+
+import dev.danvega.initializr.util.MetadataCache;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+/**
+ * Loads Initializr metadata with a stale-while-revalidate strategy: a cached copy
+ * younger than the configured max staleness is used immediately, and
+ * {@link #revalidate()} asks the server (conditionally) whether it has changed.
+ * Without any cache, the snapshot bundled at build time is used as the starting point.
+ */
+public class MetadataLoader {
+
+    private static final System.Logger LOG = System.getLogger(MetadataLoader.class.getName());
+
+    public enum Source { NETWORK, CACHE, SNAPSHOT }
+
+    /**
+     * @param fetchedAt when the metadata was last confirmed by the server, or the
+     *                  capture date for a snapshot ({@code null} if unknown)
+     */
+    public record Result(InitializrMetadata.Metadata metadata, Source source, Instant fetchedAt) {}
+
+    private final InitializrClient client;
+    private final MetadataCache cache;
+    private final Duration maxStaleness;
+    private final MetadataSnapshot snapshot;
+
+    public MetadataLoader(InitializrClient client, MetadataCache cache, Duration maxStaleness) {
+        this(client, cache, maxStaleness, MetadataSnapshot.fromClasspath().orElse(null));
+    }
+
+    public MetadataLoader(InitializrClient client, MetadataCache cache, Duration maxStaleness,
+                          MetadataSnapshot snapshot) {
+        this.client = client;
+        this.cache = cache;
+        this.maxStaleness = maxStaleness;
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * Load metadata for startup. Only blocks on the network when the cached copy is
+     * older than the max staleness, or when there is neither a cache nor a bundled
+     * snapshot, or the snapshot can't be parsed; if the server can't be reached, a stale
+     * copy or the snapshot is still preferred over failing.
+     */
+    public Result load() throws IOException, InterruptedException {
+        var cached = cache.load();
+        if (cached.isPresent() && cached.get().isFresh(maxStaleness)) {
+            try {
+                return fromCache(cached.get());
+            } catch (IOException | RuntimeException e) {
+                // Unreadable cache — fall through to the network
+                cached = Optional.empty();
+            }
+        }
+        RuntimeException snapshotFailure = null;
+        if (cached.isEmpty() && snapshot != null) {
+            try {
+                return fromSnapshot();
+            } catch (RuntimeException e) {
+                // A snapshot captured badly at build time (truncated, an error page) — fall
+                // through to the network. Logged below WARNING so it stays off the terminal.
+                LOG.log(System.Logger.Level.DEBUG, "Bundled metadata snapshot is unreadable", e);
+                snapshotFailure = e;
+            }
+        }
+
+        try {
+            return fetch(cached.orElse(null));
+        } catch (IOException e) {
+            if (cached.isPresent()) {
+                return fromCache(cached.get());
+            }
+            if (snapshotFailure != null) e.addSuppressed(snapshotFailure);
+            throw e;
+        }
+    }
+
+    /**
+     * Revalidate the cached copy with a conditional request.
+     * Returns fresh metadata only when the server reports that it changed.
+     */
+    public Optional<Result> revalidate() throws IOException, InterruptedException {
+        var cached = cache.load().orElse(null);
+        var result = fetch(cached);
+        return result.source() == Source.NETWORK ? Optional.of(result) : Optional.empty();
+    }
+
+    private Result fetch(MetadataCache.Entry cached) throws IOException, InterruptedException {
+        try (var response = cached != null
+                ? client.fetchMetadata(cached.etag(), cached.lastModified())
+                : client.fetchMetadata(null, null)) {
+            if (response.notModified()) {
+                if (cached == null) {
+                    throw new IOException("Server answered 304 but no metadata is cached");
+                }
+                return fromCache(cache.touch(new MetadataCache.Entry(
+                        response.etag(), response.lastModified(), cached.fetchedAt(), cached.sha256())));
+            }
+
+            // Parse straight off the connection while the same bytes are written to the cache
+            try (var recorder = cache.record(response.body())) {
+                var metadata = client.parseMetadata(recorder);
+                recorder.drain();
+
+                // Servers that ignore validators answer 200 with an identical body; treat that as 304 too
+                if (cached != null && recorder.sha256().equals(cached.sha256())) {
+                    var touched = cache.touch(new MetadataCache.Entry(
+                            response.etag(), response.lastModified(), cached.fetchedAt(), cached.sha256()));
+                    return new Result(metadata, Source.CACHE, Instant.ofEpochMilli(touched.fetchedAt()));
+                }
+
+                var entry = recorder.commit(response.etag(), response.lastModified(), System.currentTimeMillis());
+                return new Result(metadata, Source.NETWORK, Instant.ofEpochMilli(entry.fetchedAt()));
+            }
+        }
+    }
+
+    private Result fromSnapshot() {
+        var capturedOn = snapshot.capturedOn() != null
+                ? snapshot.capturedOn().atStartOfDay(ZoneOffset.UTC).toInstant()
+                : null;
+        return new Result(client.parseMetadata(snapshot.body()), Source.SNAPSHOT, capturedOn);
+    }
+
+    private Result fromCache(MetadataCache.Entry entry) throws IOException {
+        try (var body = cache.openBody()) {
+            return new Result(client.parseMetadata(body), Source.CACHE, Instant.ofEpochMilli(entry.fetchedAt()));
+        }
+    }
+}
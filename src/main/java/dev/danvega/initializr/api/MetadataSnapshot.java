@@ -0,0 +1,50 @@
+package dev.danvega.initializr.api;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+import java.util.Properties;
+
+/**
+ * Metadata captured from start.spring.io at build time and bundled on the classpath,
+ * used as the offline fallback when there is neither a cache nor a network.
+ *
+ * @param body       the raw metadata JSON
+ * @param capturedOn the build date the snapshot was taken, or {@code null} if unknown
+ */
+public record MetadataSnapshot(String body, LocalDate capturedOn) {
+
+    private static final String SNAPSHOT_RESOURCE = "/metadata-snapshot.json";
+
+    /**
+     * Load the bundled snapshot, if the build was able to capture one.
+     */
+    public static Optional<MetadataSnapshot> fromClasspath() {
+        try (var in = MetadataSnapshot.class.getResourceAsStream(SNAPSHOT_RESOURCE)) {
+            if (in == null) return Optional.empty();
+            String body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            if (body.isBlank()) return Optional.empty();
+            return Optional.of(new MetadataSnapshot(body, loadCapturedOn()));
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static LocalDate loadCapturedOn() {
+        try (var in = MetadataSnapshot.class.getResourceAsStream("/application.properties")) {
+            if (in != null) {
+                var props = new Properties();
+                props.load(in);
+                var date = props.getProperty("app.metadataSnapshotDate");
+                if (date != null) {
+                    return LocalDate.parse(date.trim());
+                }
+            }
+        } catch (IOException | DateTimeParseException e) {
+            // fall through to default (e.g. unfiltered placeholder when run from an IDE)
+        }
+        return null;
+    }
+}
@@ -0,0 +1,39 @@
+package dev.danvega.initializr.api;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Timeouts, retries and hedging for requests to start.spring.io.
+ *
+ * @param connectTimeout how long to wait for a connection to be established
+ * @param readTimeout    how long to wait for response headers, and for progress while reading the body
+ * @param maxAttempts    total attempts for idempotent GETs (1 disables retries)
+ * @param initialBackoff backoff cap before the first retry; doubles per retry up to {@code maxBackoff}
+ * @param maxBackoff     upper bound for the backoff cap
+ * @param hedgeDelay     for metadata and previews, send a second identical request when the first has
+ *                       not answered within this delay (or the observed p95, once known);
+ *                       {@code null} disables hedging
+ */
+public record RequestPolicy(Duration connectTimeout, Duration readTimeout, int maxAttempts,
+                            Duration initialBackoff, Duration maxBackoff, Duration hedgeDelay) {
+
+    public static RequestPolicy defaults() {
+        return new RequestPolicy(Duration.ofSeconds(10), Duration.ofSeconds(30), 3,
+                Duration.ofMillis(250), Duration.ofSeconds(4), Duration.ofSeconds(2));
+    }
+
+    public boolean hedging() {
+        return hedgeDelay != null;
+    }
+
+    /**
+     * Backoff before retry number {@code retry} (1-based), using "full jitter": a uniformly
+     * random delay between zero and the exponential cap, so concurrent clients spread out.
+     */
+    public Duration backoff(int retry) {
+        long cap = initialBackoff.toMillis() << Math.min(retry - 1, 20);
+        cap = Math.min(cap, maxBackoff.toMillis());
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(cap + 1));
+    }
+}
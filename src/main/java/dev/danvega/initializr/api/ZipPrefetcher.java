@@ -0,0 +1,265 @@
+package dev.danvega.initializr.api;
+
+import dev.danvega.initializr.model.ProjectConfig;
+import dev.danvega.initializr.util.Debouncer;
+import dev.danvega.initializr.util.ZipArchive;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Speculatively downloads starter.zip once the configuration has stopped changing,
+ * so Explore and Generate can usually start from bytes already in memory.
+ * <p>
+ * Call {@link #observe} whenever the configuration may have changed. The first config
+ * observed is the one the user starts from and is not prefetched, so a session where
+ * nothing is changed downloads nothing. Once a changed config has kept the same
+ * fingerprint for the idle delay, a rate-limited background download starts; a change
+ * in the meantime cancels it. {@link #fetch} returns the prefetched bytes, waits for a
+ * matching download in progress (lifting its rate limit), or downloads the ZIP itself;
+ * {@link #prefetched} leaves the download to the caller. Downloaded bytes are dropped
+ * once they have gone unused for a while.
+ */
+public class ZipPrefetcher implements AutoCloseable {
+
+    private static final Duration DEFAULT_IDLE_DELAY = Duration.ofMillis(1500);
+    // Speculative downloads should not compete with foreground traffic on slow links
+    private static final long DEFAULT_BYTES_PER_SECOND = 256 * 1024;
+    // Long enough for Explore followed by Generate, without holding the ZIP all session
+    private static final Duration DEFAULT_READY_TTL = Duration.ofMinutes(2);
+
+    private final InitializrClient client;
+    private final ClientStats stats;
+    private final Debouncer idle;
+    private final Debouncer expiry;
+    private final long bytesPerSecond;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    // Guarded by this
+    private String observed;
+    private Download inflight;
+    private Prefetched ready;
+    private byte[] parsedBytes;
+    private ZipArchive parsed;
+
+    private record Prefetched(String fingerprint, byte[] bytes) {}
+
+    private record Download(String fingerprint, Future<byte[]> future, Throttle throttle) {}
+
+    public ZipPrefetcher(InitializrClient client) {
+        this(client, DEFAULT_IDLE_DELAY, DEFAULT_BYTES_PER_SECOND);
+    }
+
+    public ZipPrefetcher(InitializrClient client, Duration idleDelay, long bytesPerSecond) {
+        this(client, idleDelay, bytesPerSecond, DEFAULT_READY_TTL);
+    }
+
+    public ZipPrefetcher(InitializrClient client, Duration idleDelay, long bytesPerSecond, Duration readyTtl) {
+        this.client = client;
+        this.stats = client.stats();
+        this.idle = new Debouncer("zip-prefetch", idleDelay);
+        this.expiry = new Debouncer("zip-prefetch-expiry", readyTtl);
+        this.bytesPerSecond = bytesPerSecond;
+        stats.register("prefetch.hit-rate-%", () -> {
+            long hits = stats.count("prefetch.hits");
+            long total = hits + stats.count("prefetch.misses");
+            return total == 0 ? 0 : hits * 100 / total;
+        });
+    }
+
+    /**
+     * Note the current configuration. Only a change of fingerprint restarts the idle
+     * timer, so navigation that does not touch the config does not delay the prefetch.
+     */
+    public void observe(ProjectConfig config) {
+        observe(config, config.fingerprint());
+    }
+
+    /**
+     * {@link #observe(ProjectConfig)} with the config's fingerprint already worked out.
+     */
+    public void observe(ProjectConfig config, String fingerprint) {
+        synchronized (this) {
+            if (fingerprint.equals(observed)) return;
+            boolean initial = observed == null;
+            observed = fingerprint;
+            if (initial) return;
+            if (inflight != null) {
+                // Superseded: the bytes would be for a config the user has moved away from
+                inflight.future().cancel(true);
+                inflight = null;
+                stats.increment("prefetch.cancelled");
+            }
+            if (ready != null && ready.fingerprint().equals(fingerprint)) {
+                idle.cancel();
+                return;
+            }
+        }
+        var snapshot = config.copy();
+        idle.submit(() -> start(snapshot, fingerprint));
+    }
+
+    /**
+     * The project ZIP for {@code config}: prefetched, joined in flight, or downloaded now.
+     */
+    public byte[] fetch(ProjectConfig config) throws IOException, InterruptedException {
+        byte[] prefetched = prefetched(config);
+        if (prefetched != null) return prefetched;
+
+        byte[] bytes = client.fetchProjectZip(config);
+        keep(new Prefetched(config.fingerprint(), bytes));
+        return bytes;
+    }
+
+    /**
+     * {@link #fetch} as a parsed archive. The archive for the latest bytes is kept, so
+     * Explore followed by Generate parses the central directory only once.
+     */
+    public ZipArchive fetchArchive(ProjectConfig config) throws IOException, InterruptedException {
+        return parse(fetch(config));
+    }
+
+    /**
+     * {@link #prefetched} as a parsed archive, or {@code null}.
+     */
+    public ZipArchive prefetchedArchive(ProjectConfig config) throws IOException, InterruptedException {
+        byte[] bytes = prefetched(config);
+        return bytes != null ? parse(bytes) : null;
+    }
+
+    private synchronized ZipArchive parse(byte[] bytes) throws IOException {
+        if (parsedBytes != bytes) {
+            parsed = ZipArchive.read(bytes);
+            parsedBytes = bytes;
+        }
+        return parsed;
+    }
+
+    /**
+     * The prefetched project ZIP for {@code config}, waiting for a matching download in
+     * flight; {@code null} (counted as a miss) when the caller has to download it itself.
+     */
+    public byte[] prefetched(ProjectConfig config) throws InterruptedException {
+        String fingerprint = config.fingerprint();
+        Download joined = null;
+        synchronized (this) {
+            if (ready != null && ready.fingerprint().equals(fingerprint)) {
+                stats.increment("prefetch.hits");
+                keep(ready);
+                return ready.bytes();
+            }
+            if (inflight != null && inflight.fingerprint().equals(fingerprint)) {
+                joined = inflight;
+                joined.throttle().lift();
+            }
+        }
+
+        if (joined != null) {
+            try {
+                byte[] bytes = joined.future().get();
+                stats.increment("prefetch.hits");
+                return bytes;
+            } catch (ExecutionException | CancellationException e) {
+                // Fall back to a foreground download
+            }
+        }
+        stats.increment("prefetch.misses");
+        return null;
+    }
+
+    private synchronized void start(ProjectConfig snapshot, String fingerprint) {
+        if (!fingerprint.equals(observed) || inflight != null) return;
+        if (ready != null && ready.fingerprint().equals(fingerprint)) return;
+
+        var throttle = new Throttle(bytesPerSecond);
+        stats.increment("prefetch.started");
+        inflight = new Download(fingerprint, executor.submit(() -> download(snapshot, fingerprint, throttle)), throttle);
+    }
+
+    private byte[] download(ProjectConfig snapshot, String fingerprint, Throttle throttle)
+            throws IOException, InterruptedException {
+        byte[] bytes = null;
+        try (var in = client.openProjectZip(snapshot)) {
+            var out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int n;
+            while ((n = in.read(buffer)) >= 0) {
+                if (Thread.interrupted()) throw new InterruptedIOException("Prefetch cancelled");
+                out.write(buffer, 0, n);
+                throttle.acquire(n);
+            }
+            bytes = out.toByteArray();
+            return bytes;
+        } finally {
+            synchronized (this) {
+                // Identity check: a cancelled download must not clear a newer one for the same config
+                if (inflight != null && inflight.throttle() == throttle) {
+                    inflight = null;
+                    if (bytes != null) keep(new Prefetched(fingerprint, bytes));
+                }
+            }
+        }
+    }
+
+    /**
+     * Make {@code prefetched} the bytes to serve, until they go unused for the TTL.
+     */
+    private synchronized void keep(Prefetched prefetched) {
+        ready = prefetched;
+        expiry.submit(() -> expire(prefetched));
+    }
+
+    private synchronized void expire(Prefetched prefetched) {
+        if (ready != prefetched) return;
+        ready = null;
+        if (parsedBytes == prefetched.bytes()) {
+            parsedBytes = null;
+            parsed = null;
+        }
+        stats.increment("prefetch.expired");
+    }
+
+    @Override
+    public void close() {
+        idle.close();
+        expiry.close();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Paces reads to a byte rate until lifted, when someone is waiting on the download.
+     */
+    private static final class Throttle {
+
+        private final long bytesPerSecond;
+        private final long start = System.nanoTime();
+        private long bytes;
+        private volatile boolean lifted;
+
+        Throttle(long bytesPerSecond) {
+            this.bytesPerSecond = bytesPerSecond;
+        }
+
+        void lift() {
+            lifted = true;
+        }
+
+        void acquire(int n) throws InterruptedException {
+            bytes += n;
+            long due = start + TimeUnit.SECONDS.toNanos(1) * bytes / bytesPerSecond;
+            long wait;
+            // Sleep in short slices so lifting takes effect promptly
+            while (!lifted && (wait = due - System.nanoTime()) > 0) {
+                TimeUnit.NANOSECONDS.sleep(Math.min(wait, TimeUnit.MILLISECONDS.toNanos(50)));
+            }
+        }
+    }
+}
@@ -2,10 +2,15 @@ package dev.danvega.initializr.model;
 
 import dev.danvega.initializr.api.InitializrMetadata;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.HexFormat;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.TreeSet;
 
 /**
  * Mutable state holding the current project configuration.
@@ -24,6 +29,7 @@ public class ProjectConfig {
     private String javaVersion = "25";
     private String applicationFormat = "properties";
 
+    // Guarded by this: a toggle deferred during a dependency search lands on the search worker
     private final Set<String> selectedDependencies = new LinkedHashSet<>();
 
     /**
@@ -54,25 +60,63 @@ public class ProjectConfig {
                 .replace(".BUILD-SNAPSHOT", "-SNAPSHOT");
     }
 
-    public void toggleDependency(String depId) {
+    /**
+     * Independent copy, e.g. to hand the current state to a background task.
+     */
+    public synchronized ProjectConfig copy() {
+        var copy = new ProjectConfig();
+        copy.projectType = projectType;
+        copy.language = language;
+        copy.bootVersion = bootVersion;
+        copy.groupId = groupId;
+        copy.artifactId = artifactId;
+        copy.name = name;
+        copy.description = description;
+        copy.packageName = packageName;
+        copy.packaging = packaging;
+        copy.javaVersion = javaVersion;
+        copy.applicationFormat = applicationFormat;
+        copy.selectedDependencies.addAll(selectedDependencies);
+        return copy;
+    }
+
+    /**
+     * Canonical hash of everything that affects the generated project. Dependency
+     * selection order and equivalent boot version spellings (see
+     * {@link #cleanBootVersion}) produce the same fingerprint.
+     */
+    public synchronized String fingerprint() {
+        var canonical = String.join("\u0000",
+                projectType, language, cleanBootVersion(bootVersion), groupId, artifactId, name,
+                description, packageName, packaging, javaVersion, applicationFormat,
+                String.join(",", new TreeSet<>(selectedDependencies)));
+        try {
+            var digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonical.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public synchronized void toggleDependency(String depId) {
         if (!selectedDependencies.remove(depId)) {
             selectedDependencies.add(depId);
         }
     }
 
-    public boolean isDependencySelected(String depId) {
+    public synchronized boolean isDependencySelected(String depId) {
         return selectedDependencies.contains(depId);
     }
 
-    public List<String> getSelectedDependencies() {
+    public synchronized List<String> getSelectedDependencies() {
         return new ArrayList<>(selectedDependencies);
     }
 
-    public int getSelectedCount() {
+    public synchronized int getSelectedCount() {
         return selectedDependencies.size();
     }
 
-    public void clearDependencies() {
+    public synchronized void clearDependencies() {
         selectedDependencies.clear();
     }
 
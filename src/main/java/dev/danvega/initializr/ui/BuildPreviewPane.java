@@ -0,0 +1,161 @@
+package dev.danvega.initializr.ui;
+
+import dev.danvega.initializr.model.ProjectConfig;
+import dev.danvega.initializr.util.Debouncer;
+import dev.tamboui.toolkit.element.Element;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static dev.tamboui.toolkit.Toolkit.*;
+
+/**
+ * Optional side pane on the main screen showing the build file for the current config.
+ * Refreshes are debounced and run in the background; a refresh for a newer config
+ * cancels the one in flight, and rendering only ever reads the last published result.
+ */
+public class BuildPreviewPane implements AutoCloseable {
+
+    /**
+     * Fetches the build file for a config snapshot, e.g. {@code client::previewBuildFile}.
+     */
+    @FunctionalInterface
+    public interface Loader {
+        String load(ProjectConfig config) throws Exception;
+    }
+
+    private record View(String fileName, String content, ExploreScreen highlighted, String error) {}
+
+    private static final Duration DEFAULT_DEBOUNCE = Duration.ofMillis(300);
+
+    private final Loader loader;
+    private final Debouncer debouncer;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private volatile boolean visible;
+    private volatile boolean loading;
+    private volatile View view;
+
+    // Guarded by this
+    private String requested;
+    private Future<?> inflight;
+
+    public BuildPreviewPane(Loader loader) {
+        this(loader, DEFAULT_DEBOUNCE);
+    }
+
+    public BuildPreviewPane(Loader loader, Duration debounce) {
+        this.loader = loader;
+        this.debouncer = new Debouncer("build-preview", debounce);
+    }
+
+    public boolean isVisible() { return visible; }
+    public boolean isLoading() { return loading; }
+
+    /**
+     * The build file currently shown, or {@code null} before the first load completes.
+     */
+    public String getContent() {
+        var current = view;
+        return current != null ? current.content() : null;
+    }
+
+    public void toggle(ProjectConfig config) {
+        visible = !visible;
+        if (visible) {
+            refresh(config);
+        } else {
+            synchronized (this) {
+                // Forget the request so reopening the pane refreshes it
+                requested = null;
+                cancelInflight();
+            }
+            debouncer.cancel();
+            loading = false;
+        }
+    }
+
+    /**
+     * Schedule a refresh if the pane is visible and the config changed since the last request.
+     * Cheap enough to call after every key press; never blocks.
+     */
+    public void refresh(ProjectConfig config) {
+        if (visible) refresh(config, config.fingerprint());
+    }
+
+    /**
+     * {@link #refresh(ProjectConfig)} with the config's fingerprint already worked out.
+     */
+    public void refresh(ProjectConfig config, String fingerprint) {
+        if (!visible) return;
+        synchronized (this) {
+            if (fingerprint.equals(requested)) return;
+            requested = fingerprint;
+            cancelInflight();
+            loading = true;
+        }
+        var snapshot = config.copy();
+        debouncer.submit(() -> start(snapshot, fingerprint));
+    }
+
+    private synchronized void start(ProjectConfig snapshot, String fingerprint) {
+        if (!fingerprint.equals(requested)) return;
+        inflight = executor.submit(() -> load(snapshot, fingerprint));
+    }
+
+    private void load(ProjectConfig snapshot, String fingerprint) {
+        String fileName = ExploreScreen.BuildFileType.fromProjectType(snapshot.getProjectType()).getFileName();
+        View result;
+        try {
+            String content = loader.load(snapshot);
+            var files = new LinkedHashMap<String, String>();
+            files.put(fileName, content);
+            // Reuse the Explore screen's syntax highlighting
+            result = new View(fileName, content, new ExploreScreen(files), null);
+        } catch (InterruptedException e) {
+            // Cancelled for a newer config
+            return;
+        } catch (Exception e) {
+            result = new View(fileName, null, null, e.getMessage());
+        }
+        synchronized (this) {
+            if (!fingerprint.equals(requested)) return;
+            inflight = null;
+            view = result;
+            loading = false;
+        }
+    }
+
+    private void cancelInflight() {
+        if (inflight != null) {
+            inflight.cancel(true);
+            inflight = null;
+        }
+    }
+
+    public Element render(int visibleLines) {
+        var t = ThemeManager.current();
+        var current = view;
+        String title = current != null ? current.fileName() : "Build file";
+        if (loading) title += " \u2014 refreshing...";
+
+        Element body;
+        if (current == null) {
+            body = text("  Loading preview...").fg(t.textDim()).italic();
+        } else if (current.error() != null) {
+            body = text("  Preview unavailable: " + current.error()).fg(t.error());
+        } else {
+            body = current.highlighted().renderHighlightedContent(visibleLines);
+        }
+        return panel(title, body).rounded().borderColor(t.textDim()).fill().id("build-preview");
+    }
+
+    @Override
+    public void close() {
+        debouncer.close();
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,189 @@
+package dev.danvega.initializr.ui;
+
+import dev.danvega.initializr.api.DependencyCatalog;
+
+import java.util.Arrays;
+
+/**
+ * Candidate index for fuzzy dependency search, built once per catalog. A query only
+ * matches a text if its characters appear there in order, so for every ordered pair of
+ * characters (a, b), with a somewhere before b, the index keeps the set of dependencies
+ * whose name, id or description contains that pair. Intersecting the sets for the
+ * query's pairs leaves a small superset of the matches, which is then scored as usual.
+ * <p>
+ * Characters are folded into 37 classes (a-z, 0-9 and everything else). The sets are
+ * bitsets over catalog ordinals, so candidates come out in catalog order, stored word by
+ * word: the bits of every key for 64 consecutive dependencies sit next to each other,
+ * which keeps both building and intersecting within a few KB at a time.
+ * <p>
+ * The index also keeps every searchable text with its lowercase form, so scoring never
+ * has to lowercase on a keystroke, and a 64-bit mask of the character classes in it:
+ * a text whose mask lacks one of the query's classes cannot match and is not scored.
+ */
+final class DependencyIndex {
+
+    static final int CLASSES = 37;
+    private static final int OTHER = 36;
+    // Pair keys are a * CLASSES + b; the single-class keys follow them
+    private static final int PAIRS = CLASSES * CLASSES;
+    private static final int KEYS = PAIRS + CLASSES;
+
+    // Searchable texts of a dependency, at ordinal * FIELDS + field
+    static final int NAME = 0;
+    static final int ID = 1;
+    static final int DESCRIPTION = 2;
+    static final int FIELDS = 3;
+
+    private final int words;
+    private final long[] bits;
+    private final String[] texts;
+    private final String[] lowerTexts;
+    private final long[] masks;
+
+    DependencyIndex(DependencyCatalog catalog) {
+        this.words = (catalog.size() + 63) >>> 6;
+        this.bits = new long[words * KEYS];
+        this.texts = new String[catalog.size() * FIELDS];
+        this.lowerTexts = new String[texts.length];
+        this.masks = new long[texts.length];
+        // One dependency's keys are collected here first, so a pair shared by its
+        // name, id and description is written once
+        var row = new long[(KEYS + 63) >>> 6];
+        var seenBefore = new long[CLASSES];
+        for (int ordinal = 0; ordinal < catalog.size(); ordinal++) {
+            var dep = catalog.dependency(ordinal);
+            int at = ordinal * FIELDS;
+            texts[at + NAME] = dep.name() != null ? dep.name() : "";
+            texts[at + ID] = dep.id() != null ? dep.id() : "";
+            texts[at + DESCRIPTION] = dep.description() != null ? dep.description() : "";
+            for (int field = 0; field < FIELDS; field++) {
+                lowerTexts[at + field] = texts[at + field].toLowerCase();
+                masks[at + field] = add(lowerTexts[at + field], row, seenBefore);
+            }
+
+            int base = (ordinal >>> 6) * KEYS;
+            long bit = 1L << ordinal;
+            for (int w = 0; w < row.length; w++) {
+                for (long set = row[w]; set != 0; set &= set - 1) {
+                    bits[base + (w << 6) + Long.numberOfTrailingZeros(set)] |= bit;
+                }
+                row[w] = 0;
+            }
+        }
+    }
+
+    /**
+     * Record the character classes and ordered pairs of {@code lower} in {@code row};
+     * returns the mask of its character classes.
+     */
+    private static long add(String lower, long[] row, long[] seenBefore) {
+        if (lower.isEmpty()) return 0;
+        // seenBefore[b]: classes already recorded as coming before b, so each pair is set once
+        Arrays.fill(seenBefore, 0L);
+        long seen = 0;
+        for (int i = 0; i < lower.length(); i++) {
+            int b = charClass(lower.charAt(i));
+            for (long fresh = seen & ~seenBefore[b]; fresh != 0; fresh &= fresh - 1) {
+                setKey(row, Long.numberOfTrailingZeros(fresh) * CLASSES + b);
+            }
+            seenBefore[b] = seen;
+            if ((seen & (1L << b)) == 0) {
+                setKey(row, PAIRS + b);
+                seen |= 1L << b;
+            }
+        }
+        return seen;
+    }
+
+    private static void setKey(long[] row, int key) {
+        row[key >>> 6] |= 1L << key;
+    }
+
+    static int charClass(char c) {
+        if (c >= 'a' && c <= 'z') return c - 'a';
+        if (c >= '0' && c <= '9') return 26 + (c - '0');
+        return OTHER;
+    }
+
+    /**
+     * Mask with bit {@code charClass(c)} set for every character {@code c} of {@code lower}.
+     */
+    static long mask(String lower) {
+        long mask = 0;
+        for (int i = 0; i < lower.length(); i++) {
+            mask |= 1L << charClass(lower.charAt(i));
+        }
+        return mask;
+    }
+
+    /**
+     * Whether the given field of the dependency at {@code ordinal} contains every
+     * character class in {@code queryMask}, so that it is worth scoring.
+     */
+    boolean mayMatch(int ordinal, int field, long queryMask) {
+        return (masks[ordinal * FIELDS + field] & queryMask) == queryMask;
+    }
+
+    String text(int ordinal, int field) {
+        return texts[ordinal * FIELDS + field];
+    }
+
+    String lowerText(int ordinal, int field) {
+        return lowerTexts[ordinal * FIELDS + field];
+    }
+
+    /** Words in a candidate bitset for this catalog. */
+    int words() {
+        return words;
+    }
+
+    /**
+     * Fill {@code result} with the bitset of ordinals that may match {@code query}
+     * (lowercase, non-empty); every dependency the fuzzy scorer would accept is included.
+     */
+    void candidates(String query, long[] result) {
+        // Every ordered pair of the query must be present, not only adjacent ones
+        var row = new long[(KEYS + 63) >>> 6];
+        setKey(row, PAIRS + charClass(query.charAt(0)));
+        for (int i = 0; i < query.length() - 1; i++) {
+            int a = charClass(query.charAt(i));
+            for (int j = i + 1; j < query.length(); j++) {
+                setKey(row, a * CLASSES + charClass(query.charAt(j)));
+            }
+        }
+        int count = 0;
+        var keys = new int[Math.min(KEYS, 1 + query.length() * (query.length() - 1) / 2)];
+        for (int w = 0; w < row.length; w++) {
+            for (long set = row[w]; set != 0; set &= set - 1) {
+                keys[count++] = (w << 6) + Long.numberOfTrailingZeros(set);
+            }
+        }
+
+        for (int w = 0; w < words; w++) {
+            int base = w * KEYS;
+            long word = -1L;
+            for (int k = 0; k < count && word != 0; k++) {
+                word &= bits[base + keys[k]];
+            }
+            result[w] = word;
+        }
+    }
+
+    static boolean contains(long[] set, int ordinal) {
+        return (set[ordinal >>> 6] & (1L << ordinal)) != 0;
+    }
+
+    /**
+     * The first ordinal at or after {@code from} in {@code set}, or -1.
+     */
+    static int next(long[] set, int from) {
+        int w = from >>> 6;
+        if (w >= set.length) return -1;
+        long word = set[w] & (-1L << from);
+        while (true) {
+            if (word != 0) return (w << 6) + Long.numberOfTrailingZeros(word);
+            if (++w == set.length) return -1;
+            word = set[w];
+        }
+    }
+}
@@ -1,31 +1,106 @@
 package dev.danvega.initializr.ui;
 
+import dev.danvega.initializr.api.DependencyCatalog;
 import dev.danvega.initializr.api.InitializrMetadata;
 import dev.danvega.initializr.model.ProjectConfig;
 import dev.tamboui.style.Color;
 import dev.tamboui.toolkit.element.Element;
 
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntFunction;
 
 import static dev.tamboui.toolkit.Toolkit.*;
 
 /**
  * Dependency search and selection component.
- * Displays dependencies in categorized groups with fuzzy search filtering.
+ * Displays dependencies in categorized groups with fuzzy search filtering, or ranked
+ * full-text search over names and descriptions when the query starts with {@code ?}.
+ * A fuzzy query that finds almost nothing is followed by the dependencies it is a typo
+ * or two away from.
+ * <p>
+ * The list is rebuilt on a background worker that only ever works on the latest query,
+ * abandoning a search as soon as a newer one is requested. Each rebuild is published as
+ * an immutable snapshot; rendering and navigation read the last one without locking, so
+ * the previous results stay on screen until the new ones land.
  */
-public class DependencyPicker {
+public class DependencyPicker implements AutoCloseable {
 
-    private final List<InitializrMetadata.DependencyCategory> categories;
+    private final DependencyCatalog catalog;
+    private final DependencyIndex index;
     private final ProjectConfig config;
-    private final Map<String, InitializrMetadata.Dependency> depLookup;
     private final List<List<String>> recentDependencies;
     private String searchQuery = "";
     private int cursorIndex = 0;
-    private final List<FlatItem> flatItems = new ArrayList<>();
 
     // Category filter state
     private int activeCategoryIndex = -1; // -1 = show all
 
+    private final Executor searchExecutor;
+    private volatile Request latest;
+    private volatile Snapshot snapshot;
+    // The snapshot the cursor belongs to; only touched on the UI thread
+    private Snapshot shown;
+    // Enter was pressed while a search was running; applied when its rows are published.
+    // Guarded by this, as publishing happens on the search worker
+    private boolean toggleWhenPublished;
+    private volatile Runnable onSelectionChanged = () -> {};
+    // Dependency to put the cursor on once the latest rows are shown, if they list it
+    private volatile String cursorWhenShown;
+
+    // Results of the current query and the shorter ones typed before it, newest first
+    private static final int MAX_SEARCH_HISTORY = 32;
+    private final Deque<SearchResult> searchHistory = new ArrayDeque<>();
+
+    // Queries starting with this search names and descriptions word by word
+    static final char FULL_TEXT_PREFIX = '?';
+
+    // Only the best matches are listed, with a count of the rest; about 20 rows are visible at a time
+    static final int MAX_RESULTS = 200;
+
+    // With fewer fuzzy matches than this, typo-tolerant matches are listed after them
+    static final int TYPO_FALLBACK_BELOW = 5;
+
+    // From this many candidates on, scoring is split across the fork-join pool. Not derived
+    // from measurements: DependencyPickerScaleTest.setSearchQuery_parallelCrossover prints
+    // the crossover for the machine it runs on, and has only been run on a single core
+    static final int PARALLEL_THRESHOLD = 4096;
+    private static final int PARALLEL_CHUNK = 1024;
+    private final int parallelThreshold;
+
+    // Scratch space reused by every search, owned by the search worker
+    private final FuzzyScorer scorer = new FuzzyScorer();
+    private TextIndex textIndex; // built on the first full-text search
+    private TypoIndex typoIndex; // built on the first typo fallback
+    private final long[] candidates;
+    private final int[] pendingOrdinals;
+    private final int[] matchOrdinals;
+    private final int[] matchScores;
+    private final long[] topResults = new long[MAX_RESULTS];
+
+    /**
+     * Matches of {@code query} within {@code category} (-1 for all): their ordinals in
+     * catalog order and their scores.
+     */
+    private record SearchResult(String query, int category, int[] ordinals, int[] scores) {}
+
+    /**
+     * A rebuild of the list for {@code query} within {@code category}, numbered in the
+     * order they were requested.
+     */
+    private record Request(long generation, String query, int category) {}
+
+    /**
+     * The rows built for a request and how many matches did not make the list; never
+     * modified once published.
+     */
+    private record Snapshot(long generation, String query, List<FlatItem> items, int hidden) {}
+
     public record FlatItem(String categoryName, InitializrMetadata.Dependency dependency, boolean isCategory,
                            int[] matchPositions) {
         public FlatItem(String categoryName, InitializrMetadata.Dependency dependency, boolean isCategory) {
@@ -35,61 +110,115 @@ public class DependencyPicker {
 
     public DependencyPicker(List<InitializrMetadata.DependencyCategory> categories, ProjectConfig config,
                             List<List<String>> recentDependencies) {
-        this.categories = categories;
+        // A single core gains nothing from splitting the work
+        this(categories, config, recentDependencies,
+                Executors.newSingleThreadExecutor(Thread.ofPlatform().name("dependency-search").daemon().factory()),
+                Runtime.getRuntime().availableProcessors() > 1 ? PARALLEL_THRESHOLD : Integer.MAX_VALUE);
+    }
+
+    /**
+     * Searches run on {@code searchExecutor} one at a time, in submission order; it is
+     * shut down on {@link #close()} if it is an {@link ExecutorService}.
+     */
+    DependencyPicker(List<InitializrMetadata.DependencyCategory> categories, ProjectConfig config,
+                     List<List<String>> recentDependencies, Executor searchExecutor, int parallelThreshold) {
+        this.catalog = DependencyCatalog.of(categories);
+        this.index = new DependencyIndex(catalog);
+        this.searchExecutor = searchExecutor;
+        this.parallelThreshold = parallelThreshold;
+        this.candidates = new long[index.words()];
+        this.pendingOrdinals = new int[catalog.size()];
+        this.matchOrdinals = new int[catalog.size()];
+        this.matchScores = new int[catalog.size()];
         this.config = config;
         this.recentDependencies = recentDependencies != null ? recentDependencies : List.of();
 
-        // Build lookup map for resolving dep IDs
-        this.depLookup = new HashMap<>();
-        for (var category : categories) {
-            for (var dep : category.values()) {
-                depLookup.put(dep.id(), dep);
-            }
-        }
-
-        rebuildFlatList();
+        // The full listing is ready before the first render
+        this.latest = new Request(0, searchQuery, activeCategoryIndex);
+        this.snapshot = buildSnapshot(latest);
+        this.shown = snapshot;
     }
 
+    /**
+     * Search for {@code query} in the background; never blocks.
+     */
     public void setSearchQuery(String query) {
         this.searchQuery = query.toLowerCase().trim();
         if (!searchQuery.isEmpty()) {
             activeCategoryIndex = -1; // clear category filter when searching
         }
-        rebuildFlatList();
-        cursorIndex = 0;
-        // Skip category header if first item is one
-        if (!flatItems.isEmpty() && flatItems.getFirst().isCategory()) {
-            cursorIndex = flatItems.size() > 1 ? 1 : 0;
-        }
+        requestRebuild();
     }
 
     public String getSearchQuery() {
         return searchQuery;
     }
 
-    public boolean isAtTop() { return cursorIndex <= 0; }
+    /**
+     * The rows currently shown, which lag behind the query while a search is running.
+     */
+    public List<FlatItem> getFlatItems() {
+        return items();
+    }
+
+    /**
+     * How many matches of the query shown did not make the list of best ones.
+     */
+    public int getHiddenMatchCount() {
+        items();
+        return shown.hidden();
+    }
+
+    /**
+     * Whether the rows shown are not yet those of the latest query or category filter.
+     */
+    public boolean isSearching() {
+        return snapshot.generation() != latest.generation();
+    }
+
+    public boolean isAtTop() {
+        items();
+        return cursorIndex <= 0;
+    }
 
     public void moveUp() {
+        var items = items();
         if (cursorIndex > 0) {
             cursorIndex--;
-            while (cursorIndex > 0 && flatItems.get(cursorIndex).isCategory()) {
+            while (cursorIndex > 0 && items.get(cursorIndex).isCategory()) {
                 cursorIndex--;
             }
         }
     }
 
     public void moveDown() {
-        if (cursorIndex < flatItems.size() - 1) {
+        var items = items();
+        if (cursorIndex < items.size() - 1) {
             cursorIndex++;
-            while (cursorIndex < flatItems.size() - 1 && flatItems.get(cursorIndex).isCategory()) {
+            while (cursorIndex < items.size() - 1 && items.get(cursorIndex).isCategory()) {
                 cursorIndex++;
             }
         }
     }
 
+    /**
+     * Toggle the dependency under the cursor. While a search is running the rows shown
+     * are those of an earlier query, so the toggle waits for the current query's rows:
+     * it applies to the dependency they put under the cursor as soon as the search worker
+     * publishes them, and the selection listener is told.
+     */
     public void toggleSelected() {
-        if (cursorIndex >= 0 && cursorIndex < flatItems.size()) {
-            var item = flatItems.get(cursorIndex);
+        synchronized (this) {
+            if (isSearching()) {
+                // A second Enter before the results land undoes the first
+                toggleWhenPublished = !toggleWhenPublished;
+                return;
+            }
+        }
+        // Only a newer request, made on this thread, replaces the rows now published
+        var items = items();
+        if (cursorIndex >= 0 && cursorIndex < items.size()) {
+            var item = items.get(cursorIndex);
             if (!item.isCategory() && item.dependency() != null) {
                 config.toggleDependency(item.dependency().id());
             }
@@ -97,39 +226,148 @@ public class DependencyPicker {
     }
 
     public void cycleCategory() {
-        if (categories.isEmpty()) return;
+        if (catalog.categoryCount() == 0) return;
         activeCategoryIndex++;
-        if (activeCategoryIndex >= categories.size()) {
+        if (activeCategoryIndex >= catalog.categoryCount()) {
             activeCategoryIndex = -1; // back to "All"
         }
-        rebuildFlatList();
-        cursorIndex = 0;
-        if (!flatItems.isEmpty() && flatItems.getFirst().isCategory()) {
-            cursorIndex = flatItems.size() > 1 ? 1 : 0;
-        }
+        requestRebuild();
+    }
+
+    /**
+     * Run {@code listener} after a toggle deferred during a search has been applied. It
+     * runs on the search worker, as no key press follows to pick up the change.
+     */
+    public void setOnSelectionChanged(Runnable listener) {
+        this.onSelectionChanged = listener;
     }
 
     public String getActiveCategoryName() {
-        if (activeCategoryIndex < 0 || activeCategoryIndex >= categories.size()) {
+        if (activeCategoryIndex < 0 || activeCategoryIndex >= catalog.categoryCount()) {
             return "All";
         }
-        return categories.get(activeCategoryIndex).name();
+        return catalog.categoryName(activeCategoryIndex);
     }
 
     public boolean hasCategoryFilter() {
         return activeCategoryIndex >= 0;
     }
 
-    private void rebuildFlatList() {
-        flatItems.clear();
+    /**
+     * Take over the query, category filter and cursor of {@code previous}, the picker this
+     * one replaces after the catalog changed. A category or dependency the new catalog no
+     * longer has falls back to the full listing or the first row.
+     */
+    void carryOver(DependencyPicker previous) {
+        searchQuery = previous.searchQuery;
+        activeCategoryIndex = -1;
+        if (previous.hasCategoryFilter()) {
+            String name = previous.getActiveCategoryName();
+            for (int c = 0; c < catalog.categoryCount(); c++) {
+                if (catalog.categoryName(c).equals(name)) activeCategoryIndex = c;
+            }
+        }
+        var items = previous.items();
+        if (previous.cursorIndex < items.size() && !items.get(previous.cursorIndex).isCategory()) {
+            cursorWhenShown = items.get(previous.cursorIndex).dependency().id();
+        }
+        requestRebuild();
+    }
+
+    /**
+     * The rows of the last published snapshot. When a new one has landed since the last
+     * call, the cursor moves to its first dependency.
+     */
+    private List<FlatItem> items() {
+        var current = snapshot;
+        if (current != shown) {
+            shown = current;
+            cursorIndex = cursorFor(current);
+            if (current.generation() == latest.generation()) cursorWhenShown = null;
+        }
+        return current.items();
+    }
 
-        if (!searchQuery.isEmpty()) {
-            rebuildWithFuzzySearch();
+    /**
+     * Where the cursor goes when {@code next} is shown: on the dependency carried over
+     * from the picker this one replaced if the latest rows list it, else on the first one.
+     */
+    private int cursorFor(Snapshot next) {
+        var items = next.items();
+        String carried = cursorWhenShown;
+        if (carried != null && next.generation() == latest.generation()) {
+            for (int i = 0; i < items.size(); i++) {
+                var dep = items.get(i).dependency();
+                if (dep != null && dep.id().equals(carried)) return i;
+            }
+        }
+        // Skip category header if first item is one
+        return !items.isEmpty() && items.getFirst().isCategory() && items.size() > 1 ? 1 : 0;
+    }
+
+    private void requestRebuild() {
+        Request request;
+        synchronized (this) {
+            // A toggle waiting for results was meant for the query being replaced
+            toggleWhenPublished = false;
+            request = new Request(latest.generation() + 1, searchQuery, activeCategoryIndex);
+            latest = request;
+        }
+        searchExecutor.execute(() -> rebuild(request));
+    }
+
+    private void rebuild(Request request) {
+        // Requests queued behind a newer one are dropped without scanning
+        if (request != latest) return;
+        Snapshot next;
+        try {
+            next = buildSnapshot(request);
+        } catch (CancellationException e) {
+            // Superseded mid-scan
             return;
         }
+        publish(next);
+    }
+
+    private void publish(Snapshot next) {
+        synchronized (this) {
+            // Never replace newer rows with older ones
+            if (next.generation() <= snapshot.generation()) return;
+            snapshot = next;
+            if (!toggleWhenPublished || next.generation() != latest.generation()) return;
+            toggleWhenPublished = false;
+            var items = next.items();
+            int cursor = cursorFor(next);
+            if (cursor >= items.size() || items.get(cursor).isCategory()) return;
+            config.toggleDependency(items.get(cursor).dependency().id());
+        }
+        onSelectionChanged.run();
+    }
+
+    /**
+     * Throws {@link CancellationException} once a newer request than {@code request} came in.
+     */
+    private void checkLatest(Request request) {
+        if (request != latest) throw new CancellationException();
+    }
+
+    private Snapshot buildSnapshot(Request request) {
+        var flatItems = new ArrayList<FlatItem>();
+        int hidden = 0;
+
+        // A full-text query without any word yet shows the usual listing
+        if (!request.query().isEmpty()
+                && (!isFullText(request.query()) || !TextIndex.words(request.query().substring(1)).isEmpty())) {
+            hidden = buildWithSearch(request, flatItems);
+        } else {
+            buildListing(request, flatItems);
+        }
+        return new Snapshot(request.generation(), request.query(), Collections.unmodifiableList(flatItems), hidden);
+    }
 
+    private void buildListing(Request request, List<FlatItem> flatItems) {
         // When not searching, prepend recent deps if available and no category filter
-        if (activeCategoryIndex < 0 && !recentDependencies.isEmpty()) {
+        if (request.category() < 0 && !recentDependencies.isEmpty()) {
             var recentDeps = resolveRecentDeps();
             if (!recentDeps.isEmpty()) {
                 flatItems.add(new FlatItem("\u2605 Recently Used", null, true));
@@ -140,13 +378,15 @@ public class DependencyPicker {
         }
 
         // Normal category listing (with optional filter)
-        for (int i = 0; i < categories.size(); i++) {
-            if (activeCategoryIndex >= 0 && i != activeCategoryIndex) continue;
-            var category = categories.get(i);
-            if (!category.values().isEmpty()) {
-                flatItems.add(new FlatItem(category.name(), null, true));
-                for (var dep : category.values()) {
-                    flatItems.add(new FlatItem(category.name(), dep, false));
+        for (int c = 0; c < catalog.categoryCount(); c++) {
+            if (request.category() >= 0 && c != request.category()) continue;
+            int start = catalog.categoryStart(c);
+            int end = catalog.categoryEnd(c);
+            if (start < end) {
+                String categoryName = catalog.categoryName(c);
+                flatItems.add(new FlatItem(categoryName, null, true));
+                for (int ordinal = start; ordinal < end; ordinal++) {
+                    flatItems.add(new FlatItem(categoryName, catalog.dependency(ordinal), false));
                 }
             }
         }
@@ -157,8 +397,9 @@ public class DependencyPicker {
         var result = new ArrayList<InitializrMetadata.Dependency>();
         for (var depSet : recentDependencies) {
             for (var id : depSet) {
-                if (seen.add(id) && depLookup.containsKey(id)) {
-                    result.add(depLookup.get(id));
+                int ordinal = catalog.ordinalOf(id);
+                if (seen.add(id) && ordinal >= 0) {
+                    result.add(catalog.dependency(ordinal));
                     if (result.size() >= 10) return result;
                 }
             }
@@ -166,111 +407,244 @@ public class DependencyPicker {
         return result;
     }
 
-    private void rebuildWithFuzzySearch() {
-        record ScoredDep(InitializrMetadata.Dependency dep, String categoryName, int score, int[] matchPositions) {}
-
-        var scored = new ArrayList<ScoredDep>();
-
-        for (var category : categories) {
-            if (activeCategoryIndex >= 0 && categories.indexOf(category) != activeCategoryIndex) continue;
-            for (var dep : category.values()) {
-                String name = dep.name() != null ? dep.name() : "";
-                String id = dep.id() != null ? dep.id() : "";
-                String desc = dep.description() != null ? dep.description() : "";
-
-                var nameResult = fuzzyScore(searchQuery, name);
-                var idResult = fuzzyScore(searchQuery, id);
-                var descResult = fuzzyScore(searchQuery, desc);
+    private static boolean isFullText(String query) {
+        return !query.isEmpty() && query.charAt(0) == FULL_TEXT_PREFIX;
+    }
 
-                int bestScore = Math.max(nameResult.score(), Math.max(idResult.score(), descResult.score()));
-                if (bestScore > 0) {
-                    // Use name match positions for highlighting, falling back to others
-                    int[] positions = nameResult.score() > 0 ? nameResult.positions() : null;
-                    scored.add(new ScoredDep(dep, category.name(), bestScore, positions));
-                }
-            }
+    /**
+     * Add the rows for a search; returns how many matches were left out.
+     */
+    private int buildWithSearch(Request request, List<FlatItem> flatItems) {
+        boolean fullText = isFullText(request.query());
+        String query = fullText ? request.query().substring(1) : request.query();
+        int count;
+        int size;
+        if (fullText) {
+            // Building an index takes a while on a large catalog; not for a query already replaced
+            checkLatest(request);
+            if (textIndex == null) textIndex = new TextIndex(catalog);
+            checkLatest(request);
+            count = retain(textIndex.search(query, matchOrdinals, matchScores), request.category(), new int[0]);
+            size = selectTop(matchOrdinals, matchScores, count, topResults);
+        } else {
+            var result = search(request);
+            count = result.ordinals().length;
+            size = selectTop(result.ordinals(), result.scores(), count, topResults);
         }
 
-        // Sort by score descending; equal scores keep original order (stable sort)
-        scored.sort(Comparator.comparingInt(ScoredDep::score).reversed());
+        // Highlight the name only when the query matched it; positions are only
+        // worked out for the dependencies shown
+        String lastCategory = addTopResults(flatItems, size, null, ordinal -> {
+            String name = index.text(ordinal, DependencyIndex.NAME);
+            if (fullText) return TextIndex.matchPositions(name, query);
+            int nameScore = scorer.score(query, name, index.lowerText(ordinal, DependencyIndex.NAME));
+            return nameScore > 0 ? scorer.copyPositions() : null;
+        });
+        if (fullText || size >= TYPO_FALLBACK_BELOW) return count - size;
+
+        // Probably a typo: "kafak" is no subsequence of "kafka". Closest words first,
+        // skipping what fuzzy matching already listed
+        var listed = new int[size];
+        for (int i = 0; i < size; i++) listed[i] = Integer.MAX_VALUE - (int) topResults[i];
+        checkLatest(request);
+        if (typoIndex == null) typoIndex = new TypoIndex(catalog);
+        checkLatest(request);
+        int typos = retain(typoIndex.search(query, matchOrdinals, matchScores), request.category(), listed);
+        for (int i = 0; i < typos; i++) matchScores[i] = Integer.MAX_VALUE - matchScores[i];
+        int typoSize = selectTop(matchOrdinals, matchScores, typos, topResults);
+        addTopResults(flatItems, typoSize, lastCategory, ordinal -> null);
+        return typos - typoSize;
+    }
 
-        String lastCategory = null;
-        for (var item : scored) {
-            if (!item.categoryName().equals(lastCategory)) {
-                flatItems.add(new FlatItem(item.categoryName(), null, true));
-                lastCategory = item.categoryName();
+    /**
+     * Add rows for the {@code size} results selected into {@code topResults}, best first,
+     * under a header whenever the category changes; returns the last category added.
+     */
+    private String addTopResults(List<FlatItem> flatItems, int size, String lastCategory,
+                                 IntFunction<int[]> matchPositions) {
+        for (int i = size - 1; i >= 0; i--) {
+            int ordinal = Integer.MAX_VALUE - (int) topResults[i];
+            String categoryName = catalog.categoryName(catalog.categoryOf(ordinal));
+            if (!categoryName.equals(lastCategory)) {
+                flatItems.add(new FlatItem(categoryName, null, true));
+                lastCategory = categoryName;
             }
-            flatItems.add(new FlatItem(item.categoryName(), item.dep(), false, item.matchPositions()));
+            flatItems.add(new FlatItem(categoryName, catalog.dependency(ordinal), false, matchPositions.apply(ordinal)));
         }
+        return lastCategory;
     }
 
-    record FuzzyResult(int score, int[] positions) {}
-
-    private FuzzyResult fuzzyScore(String query, String target) {
-        if (query.isEmpty() || target.isEmpty()) return new FuzzyResult(0, new int[0]);
-
-        String lowerTarget = target.toLowerCase();
-
-        // Exact substring match gets highest score
-        int substringIdx = lowerTarget.indexOf(query);
-        if (substringIdx >= 0) {
-            int[] positions = new int[query.length()];
-            for (int i = 0; i < query.length(); i++) positions[i] = substringIdx + i;
-            return new FuzzyResult(1000 + (100 - substringIdx), positions); // bonus for earlier match
+    /**
+     * Matches for the requested query. When the query only grew since an earlier search,
+     * just that search's matches are scored again, since a dependency matching "web"
+     * must have matched "we"; going back to an earlier query reuses its result as is.
+     * Throws {@link CancellationException} once a newer request comes in.
+     */
+    private SearchResult search(Request request) {
+        String query = request.query();
+        int category = request.category();
+        while (!searchHistory.isEmpty()) {
+            var last = searchHistory.peek();
+            if (last.category() == category && query.startsWith(last.query())) break;
+            searchHistory.pop();
+        }
+        var last = searchHistory.peek();
+        if (last != null && last.query().equals(query)) return last;
+
+        // Only dependencies the index cannot rule out are scored, still in catalog order
+        index.candidates(query, candidates);
+        int pending = 0;
+        if (last != null) {
+            for (int ordinal : last.ordinals()) {
+                if (DependencyIndex.contains(candidates, ordinal)) pendingOrdinals[pending++] = ordinal;
+            }
+        } else {
+            // A category filter is just a narrower ordinal range
+            int from = category >= 0 ? catalog.categoryStart(category) : 0;
+            int to = category >= 0 ? catalog.categoryEnd(category) : catalog.size();
+            for (int ordinal = DependencyIndex.next(candidates, from);
+                 ordinal >= 0 && ordinal < to;
+                 ordinal = DependencyIndex.next(candidates, ordinal + 1)) {
+                pendingOrdinals[pending++] = ordinal;
+            }
         }
 
-        // Fuzzy: all chars must appear in order
-        int[] positions = new int[query.length()];
-        int targetIdx = 0;
-        int score = 0;
-        int prevMatchIdx = -2;
+        long queryMask = DependencyIndex.mask(query);
+        int count = pending >= parallelThreshold
+                ? ForkJoinPool.commonPool().invoke(new ScoreTask(request, queryMask, 0, pending))
+                : score(scorer, request, queryMask, 0, pending);
 
-        for (int qi = 0; qi < query.length(); qi++) {
-            char qc = query.charAt(qi);
-            boolean found = false;
-            while (targetIdx < lowerTarget.length()) {
-                if (lowerTarget.charAt(targetIdx) == qc) {
-                    positions[qi] = targetIdx;
+        var result = new SearchResult(query, category,
+                Arrays.copyOf(matchOrdinals, count), Arrays.copyOf(matchScores, count));
+        searchHistory.push(result);
+        if (searchHistory.size() > MAX_SEARCH_HISTORY) searchHistory.removeLast();
+        return result;
+    }
 
-                    // Consecutive match bonus
-                    if (targetIdx == prevMatchIdx + 1) {
-                        score += 15;
-                    }
+    /**
+     * Drop the first {@code count} matches that are outside {@code category} (-1 for all)
+     * or among {@code excluded}, packing the rest; returns how many are left.
+     */
+    private int retain(int count, int category, int[] excluded) {
+        int from = category >= 0 ? catalog.categoryStart(category) : 0;
+        int to = category >= 0 ? catalog.categoryEnd(category) : catalog.size();
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            int ordinal = matchOrdinals[i];
+            boolean isExcluded = false;
+            for (int e : excluded) isExcluded |= e == ordinal;
+            if (ordinal >= from && ordinal < to && !isExcluded) {
+                matchOrdinals[kept] = matchOrdinals[i];
+                matchScores[kept] = matchScores[i];
+                kept++;
+            }
+        }
+        return kept;
+    }
 
-                    // Word boundary bonus (start of string, after space/hyphen/dot)
-                    if (targetIdx == 0 || !Character.isLetterOrDigit(lowerTarget.charAt(targetIdx - 1))) {
-                        score += 20;
-                    }
+    /**
+     * Score {@code pendingOrdinals[from, to)} by their best field, packing the matches
+     * into the match arrays from {@code from} on; returns how many matched.
+     */
+    private int score(FuzzyScorer scorer, Request request, long queryMask, int from, int to) {
+        String query = request.query();
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            // Give up on a superseded query without scanning the rest
+            if ((i & 255) == 0) checkLatest(request);
+            int ordinal = pendingOrdinals[i];
+            int best = 0;
+            for (int field = 0; field < DependencyIndex.FIELDS; field++) {
+                // A field missing any of the query's characters cannot match
+                if (!index.mayMatch(ordinal, field, queryMask)) continue;
+                best = Math.max(best, scorer.score(query, index.text(ordinal, field), index.lowerText(ordinal, field)));
+            }
+            if (best > 0) {
+                matchOrdinals[from + count] = ordinal;
+                matchScores[from + count] = best;
+                count++;
+            }
+        }
+        return count;
+    }
 
-                    // Camel case boundary bonus
-                    if (targetIdx > 0 && Character.isUpperCase(target.charAt(targetIdx))
-                            && Character.isLowerCase(target.charAt(targetIdx - 1))) {
-                        score += 15;
-                    }
+    /**
+     * Scores a range of pending ordinals on the fork-join pool, halving it down to
+     * {@link #PARALLEL_CHUNK} per task. Each half packs its matches at its own start and a
+     * join moves the right half's up against the left's, so the matches end up in catalog
+     * order whichever half finishes first.
+     */
+    private final class ScoreTask extends RecursiveTask<Integer> {
+
+        private final Request request;
+        private final long queryMask;
+        private final int from;
+        private final int to;
+
+        ScoreTask(Request request, long queryMask, int from, int to) {
+            this.request = request;
+            this.queryMask = queryMask;
+            this.from = from;
+            this.to = to;
+        }
 
-                    score += 10; // base score per matched char
-                    prevMatchIdx = targetIdx;
-                    targetIdx++;
-                    found = true;
-                    break;
-                }
-                targetIdx++;
+        @Override
+        protected Integer compute() {
+            if (to - from <= PARALLEL_CHUNK) {
+                // The scorer's buffers are not shared between threads
+                return score(new FuzzyScorer(), request, queryMask, from, to);
             }
-            if (!found) return new FuzzyResult(0, new int[0]); // not all chars matched
+            int mid = (from + to) >>> 1;
+            var left = new ScoreTask(request, queryMask, from, mid);
+            left.fork();
+            int rightCount = new ScoreTask(request, queryMask, mid, to).compute();
+            int leftCount = left.join();
+            System.arraycopy(matchOrdinals, mid, matchOrdinals, from + leftCount, rightCount);
+            System.arraycopy(matchScores, mid, matchScores, from + leftCount, rightCount);
+            return leftCount + rightCount;
         }
+    }
 
-        // Density bonus: fewer gaps = better
-        int span = positions[positions.length - 1] - positions[0] + 1;
-        if (span > 0) {
-            score += (int) (50.0 * query.length() / span);
+    /**
+     * Keep the best {@link #MAX_RESULTS} matches in {@code topResults}, worst first, using a
+     * bounded min-heap; returns how many were kept. Each is packed as {@code score << 32 | (MAX_VALUE - ordinal)}, so a
+     * larger key means a higher score or, for equal scores, an earlier dependency: the
+     * order a stable sort by score gives.
+     */
+    static int selectTop(int[] ordinals, int[] scores, int count, long[] topResults) {
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            long key = (long) scores[i] << 32 | (Integer.MAX_VALUE - ordinals[i]);
+            if (size < MAX_RESULTS) {
+                // Sift up
+                int child = size++;
+                while (child > 0 && topResults[(child - 1) >>> 1] > key) {
+                    topResults[child] = topResults[(child - 1) >>> 1];
+                    child = (child - 1) >>> 1;
+                }
+                topResults[child] = key;
+            } else if (key > topResults[0]) {
+                // Replace the worst kept match and sift down
+                int parent = 0;
+                while (true) {
+                    int child = 2 * parent + 1;
+                    if (child >= size) break;
+                    if (child + 1 < size && topResults[child + 1] < topResults[child]) child++;
+                    if (topResults[child] >= key) break;
+                    topResults[parent] = topResults[child];
+                    parent = child;
+                }
+                topResults[parent] = key;
+            }
         }
-
-        return new FuzzyResult(score, positions);
+        Arrays.sort(topResults, 0, size);
+        return size;
     }
 
     public Element render() {
         var t = ThemeManager.current();
         var elements = new ArrayList<Element>();
+        var flatItems = items();
 
         // Selected summary
         var selected = config.getSelectedDependencies();
@@ -289,7 +663,7 @@ public class DependencyPicker {
         int visibleStart = Math.max(0, cursorIndex - 10);
         int visibleEnd = Math.min(flatItems.size(), visibleStart + 20);
 
-        boolean inSearchMode = !searchQuery.isEmpty();
+        boolean inSearchMode = !shown.query().isEmpty();
 
         for (int i = visibleStart; i < visibleEnd; i++) {
             var item = flatItems.get(i);
@@ -327,6 +701,8 @@ public class DependencyPicker {
 
         if (flatItems.isEmpty()) {
             elements.add(text("  No dependencies match your search").fg(t.textDim()).italic());
+        } else if (shown.hidden() > 0 && visibleEnd == flatItems.size()) {
+            elements.add(text("  +" + shown.hidden() + " more, keep typing to narrow down").fg(t.textDim()).italic());
         }
 
         return column(elements.toArray(Element[]::new));
@@ -344,15 +720,14 @@ public class DependencyPicker {
         if (isCursor) prefixEl = prefixEl.bold();
         parts.add(prefixEl);
 
-        var matchSet = new HashSet<Integer>();
-        for (int pos : matchPositions) matchSet.add(pos);
-
-        // Group consecutive chars with same highlight state
+        // Group consecutive chars with same highlight state; positions are ascending
         var sb = new StringBuilder();
         boolean currentHighlight = false;
+        int nextMatch = 0;
 
         for (int i = 0; i < name.length(); i++) {
-            boolean isMatch = matchSet.contains(i);
+            boolean isMatch = nextMatch < matchPositions.length && matchPositions[nextMatch] == i;
+            if (isMatch) nextMatch++;
             if (i == 0) {
                 currentHighlight = isMatch;
                 sb.append(name.charAt(i));
@@ -387,4 +762,9 @@ public class DependencyPicker {
 
         return row(parts.toArray(Element[]::new));
     }
+
+    @Override
+    public void close() {
+        if (searchExecutor instanceof ExecutorService service) service.shutdownNow();
+    }
 }
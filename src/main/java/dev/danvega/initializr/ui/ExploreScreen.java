@@ -164,7 +164,7 @@ public class ExploreScreen {
         return FileType.PLAIN;
     }
 
-    private Element renderHighlightedContent(int visibleLines) {
+    Element renderHighlightedContent(int visibleLines) {
         var t = ThemeManager.current();
         var contentElements = new ArrayList<Element>();
         int end = Math.min(lines.length, scrollOffset + visibleLines);
@@ -0,0 +1,78 @@
+package dev.danvega.initializr.ui;
+
+import java.util.Arrays;
+
+/**
+ * Scores a query against dependency texts without allocating: the lowercase form of each
+ * text is computed once up front and passed in, and matched positions are written to a
+ * buffer owned by the scorer. One scorer serves one thread.
+ */
+final class FuzzyScorer {
+
+    private int[] positions = new int[32];
+    private int matched;
+
+    /**
+     * Score {@code query} (lowercase) against {@code target}, or 0 if not all of its
+     * characters appear in order. Exact substrings score above 1000, earlier ones higher.
+     */
+    int score(String query, String target, String lowerTarget) {
+        matched = 0;
+        if (query.isEmpty() || target.isEmpty()) return 0;
+        if (positions.length < query.length()) positions = new int[query.length() * 2];
+
+        // Exact substring match gets highest score
+        int substringIdx = lowerTarget.indexOf(query);
+        if (substringIdx >= 0) {
+            for (int i = 0; i < query.length(); i++) positions[i] = substringIdx + i;
+            matched = query.length();
+            return 1000 + (100 - substringIdx); // bonus for earlier match
+        }
+
+        // Fuzzy: all chars must appear in order
+        int targetIdx = 0;
+        int score = 0;
+        int prevMatchIdx = -2;
+
+        for (int qi = 0; qi < query.length(); qi++) {
+            targetIdx = lowerTarget.indexOf(query.charAt(qi), targetIdx);
+            if (targetIdx < 0) return 0; // not all chars matched
+            positions[qi] = targetIdx;
+
+            // Consecutive match bonus
+            if (targetIdx == prevMatchIdx + 1) {
+                score += 15;
+            }
+
+            // Word boundary bonus (start of string, after space/hyphen/dot)
+            if (targetIdx == 0 || !Character.isLetterOrDigit(lowerTarget.charAt(targetIdx - 1))) {
+                score += 20;
+            }
+
+            // Camel case boundary bonus
+            if (targetIdx > 0 && targetIdx < target.length() && Character.isUpperCase(target.charAt(targetIdx))
+                    && Character.isLowerCase(target.charAt(targetIdx - 1))) {
+                score += 15;
+            }
+
+            score += 10; // base score per matched char
+            prevMatchIdx = targetIdx;
+            targetIdx++;
+        }
+        matched = query.length();
+
+        // Density bonus: fewer gaps = better
+        int span = positions[matched - 1] - positions[0] + 1;
+        if (span > 0) {
+            score += (int) (50.0 * query.length() / span);
+        }
+        return score;
+    }
+
+    /**
+     * A copy of the positions matched by the last successful {@link #score} call, ascending.
+     */
+    int[] copyPositions() {
+        return Arrays.copyOf(positions, matched);
+    }
+}
@@ -32,6 +32,26 @@ public class GenerateScreen {
         this.statusMessage = message;
     }
 
+    /**
+     * Show download progress; {@code totalBytes} is -1 when unknown.
+     * The download and extraction happen together and fill most of the gauge.
+     */
+    public void setDownloadProgress(long bytesRead, long totalBytes) {
+        this.state = State.GENERATING;
+        if (totalBytes > 0) {
+            this.progress = 0.1 + 0.7 * Math.min(1.0, (double) bytesRead / totalBytes);
+            this.statusMessage = "Downloading and extracting... " + formatBytes(bytesRead) + " of " + formatBytes(totalBytes);
+        } else {
+            this.statusMessage = "Downloading and extracting... " + formatBytes(bytesRead);
+        }
+    }
+
+    public static String formatBytes(long bytes) {
+        if (bytes < 1024) return bytes + " B";
+        if (bytes < 1024 * 1024) return String.format("%.1f KB", bytes / 1024.0);
+        return String.format("%.1f MB", bytes / (1024.0 * 1024));
+    }
+
     public static final String TERMINAL_SENTINEL = "__terminal__";
 
     public void setSuccess(Path projectDir, List<IdeLauncher.DetectedIde> ides) {
@@ -25,9 +25,11 @@ public class HelpScreen {
                                 shortcutRow("\u2191 \u2193", "Move between fields / dependencies"),
                                 shortcutRow("k j", "Move between fields / dependencies (vim)"),
                                 shortcutRow("/", "Search dependencies"),
+                                shortcutRow("/ then ?", "Full-text search of names and descriptions"),
                                 shortcutRow("Space / Enter", "Toggle selected dependency"),
                                 shortcutRow("c", "Cycle category filter"),
                                 shortcutRow("x", "Clear all dependencies"),
+                                shortcutRow("p", "Toggle live build file preview"),
                                 shortcutRow("e", "Explore generated project"),
                                 shortcutRow("g", "Generate and download project"),
                                 shortcutRow("?", "Show this help screen"),
@@ -15,25 +15,59 @@ import static dev.tamboui.toolkit.Toolkit.*;
  */
 public class MainScreen {
 
+    private static final int PREVIEW_LINES = 40;
+
     public enum FocusArea { PROJECT_TYPE, LANGUAGE, BOOT_VERSION, GROUP, ARTIFACT, NAME, DESCRIPTION, PACKAGING, JAVA_VERSION, APPLICATION_FORMAT, DEPENDENCIES }
 
-    private final InitializrMetadata.Metadata metadata;
+    private InitializrMetadata.Metadata metadata;
     private final ProjectConfig config;
-    private final DependencyPicker dependencyPicker;
-    private final InitializrMetadata.SelectField appFormatField;
+    private final List<List<String>> recentDependencies;
+    private DependencyPicker dependencyPicker;
+    private InitializrMetadata.SelectField appFormatField;
     private FocusArea focusArea = FocusArea.PROJECT_TYPE;
     private boolean searchMode = false;
     private StringBuilder searchBuffer = new StringBuilder();
+    private String statusBadge;
+    private BuildPreviewPane buildPreview;
+    private Runnable onSelectionChanged = () -> {};
 
     public MainScreen(InitializrMetadata.Metadata metadata, ProjectConfig config,
                       List<List<String>> recentDependencies) {
-        this.metadata = metadata;
         this.config = config;
-        this.dependencyPicker = new DependencyPicker(
-                metadata.dependencies() != null ? metadata.dependencies().values() : List.of(),
-                config,
-                recentDependencies
-        );
+        this.recentDependencies = recentDependencies;
+        applyMetadata(metadata);
+    }
+
+    /**
+     * Swap in refreshed metadata (e.g. after background revalidation) while keeping
+     * the user's focus, search query, category filter, cursor and selections.
+     */
+    public void updateMetadata(InitializrMetadata.Metadata metadata) {
+        var previous = dependencyPicker;
+        applyMetadata(metadata);
+        if (dependencyPicker != previous) {
+            dependencyPicker.carryOver(previous);
+            previous.close();
+        }
+        // Keep the selected Boot version only if the fresh metadata still offers it
+        var bootVersion = metadata.bootVersion();
+        if (bootVersion != null
+                && bootVersion.values().stream().noneMatch(o -> o.id().equals(config.getBootVersion()))) {
+            config.setBootVersion(bootVersion.defaultOrFirst());
+        }
+        // The Boot version may have changed without a key press to trigger a refresh
+        if (buildPreview != null) buildPreview.refresh(config);
+    }
+
+    private void applyMetadata(InitializrMetadata.Metadata metadata) {
+        var categories = dependencyCategories(metadata);
+        boolean catalogChanged = this.metadata == null || !categories.equals(dependencyCategories(this.metadata));
+        this.metadata = metadata;
+        // An unchanged catalog keeps its picker, and with it whatever the user is doing there
+        if (catalogChanged) {
+            this.dependencyPicker = new DependencyPicker(categories, config, recentDependencies);
+            dependencyPicker.setOnSelectionChanged(onSelectionChanged);
+        }
         this.appFormatField = metadata.applicationFormat() != null
                 ? metadata.applicationFormat()
                 : new InitializrMetadata.SelectField("single-select", "properties",
@@ -41,6 +75,35 @@ public class MainScreen {
                                 new InitializrMetadata.SelectOption("yaml", "YAML")));
     }
 
+    private static List<InitializrMetadata.DependencyCategory> dependencyCategories(InitializrMetadata.Metadata metadata) {
+        return metadata.dependencies() != null ? metadata.dependencies().values() : List.of();
+    }
+
+    /**
+     * Show a short notice in the header (e.g. that offline metadata is in use), or clear it with {@code null}.
+     */
+    public void setStatusBadge(String statusBadge) {
+        this.statusBadge = statusBadge;
+    }
+
+    public String getStatusBadge() { return statusBadge; }
+
+    /**
+     * Attach the live build file pane, shown beside the form while it is toggled on.
+     */
+    public void setBuildPreview(BuildPreviewPane buildPreview) {
+        this.buildPreview = buildPreview;
+    }
+
+    /**
+     * Run {@code listener} when the dependency picker changes the selection on its own,
+     * i.e. applies an Enter pressed while a search was still running.
+     */
+    public void setOnSelectionChanged(Runnable listener) {
+        this.onSelectionChanged = listener;
+        dependencyPicker.setOnSelectionChanged(listener);
+    }
+
     public FocusArea getFocusArea() { return focusArea; }
     public DependencyPicker getDependencyPicker() { return dependencyPicker; }
     public boolean isSearchMode() { return searchMode; }
@@ -156,6 +219,17 @@ public class MainScreen {
     }
 
     public Element render() {
+        if (buildPreview != null && buildPreview.isVisible()) {
+            return column(
+                    renderHeader(),
+                    row(
+                            column(renderConfigForm(), renderDependencyPanel()).fill(),
+                            buildPreview.render(PREVIEW_LINES)
+                    ).fill(),
+                    renderActionBar(),
+                    renderFooter()
+            ).id("main-screen");
+        }
         return column(
                 renderHeader(),
                 renderConfigForm(),
@@ -167,12 +241,15 @@ public class MainScreen {
 
     private Element renderHeader() {
         var t = ThemeManager.current();
+        var parts = new ArrayList<Element>();
+        parts.add(text("  SPRING INITIALIZR").fg(t.primary()).bold());
+        parts.add(spacer());
+        if (statusBadge != null) {
+            parts.add(text("[ " + statusBadge + " ]  ").fg(t.accent()));
+        }
+        parts.add(text("v" + appVersion() + "  ").fg(t.textDim()));
         return panel("",
-                row(
-                        text("  SPRING INITIALIZR").fg(t.primary()).bold(),
-                        spacer(),
-                        text("v" + appVersion() + "  ").fg(t.textDim())
-                )
+                row(parts.toArray(Element[]::new))
         ).rounded().borderColor(t.primary()).length(3).id("header");
     }
 
@@ -261,7 +338,9 @@ public class MainScreen {
                     text("  Search: ").fg(t.text()).bold(),
                     text("[ ").fg(t.primary()),
                     text("Esc").fg(t.text()).bold(),
-                    text(":exit").fg(t.textDim()),
+                    text(":exit  ").fg(t.textDim()),
+                    text(String.valueOf(DependencyPicker.FULL_TEXT_PREFIX)).fg(t.text()).bold(),
+                    text(":search descriptions").fg(t.textDim()),
                     text(" ]").fg(t.primary())
                 );
             } else {
@@ -318,6 +397,7 @@ public class MainScreen {
                 text("\u2190\u2192").fg(t.text()), text(":change  ").fg(t.textDim()),
                 text("c").fg(t.text()), text(":filter  ").fg(t.textDim()),
                 text("x").fg(t.text()), text(":clear  ").fg(t.textDim()),
+                text("p").fg(t.text()), text(":preview  ").fg(t.textDim()),
                 text("?").fg(t.text()), text(":help  ").fg(t.textDim()),
                 text("q").fg(t.text()), text(":quit").fg(t.textDim()),
                 spacer()
@@ -0,0 +1,238 @@
+package dev.danvega.initializr.ui;
+
+import dev.danvega.initializr.api.DependencyCatalog;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Inverted index over the words of dependency names and descriptions, ranked with BM25
+ * for the picker's full-text mode. A word is a run of letters and digits, lowercased; a
+ * name word counts as {@link #NAME_WEIGHT} description words. The last word of a query
+ * also matches the words it is a prefix of, so results follow each keystroke.
+ * <p>
+ * Postings are stored term by term in flat arrays, with terms sorted so a prefix is a
+ * contiguous range. Searching reuses scratch arrays and is not thread-safe.
+ */
+final class TextIndex {
+
+    static final int NAME_WEIGHT = 3;
+    // Usual BM25 parameters: term frequency saturation and length normalisation
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    // Scores are handed to the picker as fixed-point ints
+    private static final double SCALE = 1000;
+
+    private final String[] terms;
+    private final int[] postingStart;
+    private final int[] postingOrdinals;
+    private final int[] postingFrequencies;
+    private final double[] lengthNorm;
+
+    // Scratch space reused by every search
+    private final double[] total;
+    private final double[] best;
+    private final int[] touched;
+    private final int[] touchedByTerm;
+
+    TextIndex(DependencyCatalog catalog) {
+        int size = catalog.size();
+        var termIds = new HashMap<String, Integer>();
+        var termNames = new ArrayList<String>();
+        var postingTerms = new IntList();
+        var ordinals = new IntList();
+        var frequencies = new IntList();
+        var lengths = new int[size];
+        long totalLength = 0;
+
+        var counts = new HashMap<String, Integer>();
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            var dep = catalog.dependency(ordinal);
+            counts.clear();
+            for (String word : words(dep.name())) counts.merge(word, NAME_WEIGHT, Integer::sum);
+            for (String word : words(dep.description())) counts.merge(word, 1, Integer::sum);
+            for (var entry : counts.entrySet()) {
+                int id = termIds.computeIfAbsent(entry.getKey(), term -> {
+                    termNames.add(term);
+                    return termNames.size() - 1;
+                });
+                postingTerms.add(id);
+                ordinals.add(ordinal);
+                frequencies.add(entry.getValue());
+                lengths[ordinal] += entry.getValue();
+            }
+            totalLength += lengths[ordinal];
+        }
+
+        // Sort terms, then group postings by term; within a term they stay in catalog order
+        var sortedIds = new Integer[termNames.size()];
+        for (int i = 0; i < sortedIds.length; i++) sortedIds[i] = i;
+        Arrays.sort(sortedIds, (a, b) -> termNames.get(a).compareTo(termNames.get(b)));
+        var rank = new int[sortedIds.length];
+        this.terms = new String[sortedIds.length];
+        for (int i = 0; i < sortedIds.length; i++) {
+            rank[sortedIds[i]] = i;
+            terms[i] = termNames.get(sortedIds[i]);
+        }
+        this.postingStart = new int[terms.length + 1];
+        for (int i = 0; i < postingTerms.size; i++) postingStart[rank[postingTerms.get(i)] + 1]++;
+        for (int t = 0; t < terms.length; t++) postingStart[t + 1] += postingStart[t];
+        this.postingOrdinals = new int[postingTerms.size];
+        this.postingFrequencies = new int[postingTerms.size];
+        var next = Arrays.copyOf(postingStart, terms.length);
+        for (int i = 0; i < postingTerms.size; i++) {
+            int at = next[rank[postingTerms.get(i)]]++;
+            postingOrdinals[at] = ordinals.get(i);
+            postingFrequencies[at] = frequencies.get(i);
+        }
+
+        // K1 * (1 - B + B * length / average length), the part of BM25 fixed per dependency
+        double averageLength = size > 0 ? Math.max(1.0, (double) totalLength / size) : 1.0;
+        this.lengthNorm = new double[size];
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            lengthNorm[ordinal] = K1 * (1 - B + B * lengths[ordinal] / averageLength);
+        }
+
+        this.total = new double[size];
+        this.best = new double[size];
+        this.touched = new int[size];
+        this.touchedByTerm = new int[size];
+    }
+
+    /**
+     * The lowercase words of {@code text}, in order, with repeats.
+     */
+    static List<String> words(String text) {
+        var words = new ArrayList<String>();
+        if (text == null) return words;
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean inWord = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (inWord && start < 0) {
+                start = i;
+            } else if (!inWord && start >= 0) {
+                words.add(text.substring(start, i).toLowerCase());
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Rank the dependencies matching any word of {@code query} (lowercase), writing their
+     * ordinals and scores to the given arrays; returns how many there are. A query word is
+     * scored as a single term even when, as a prefix, it matches several: its frequency in
+     * a dependency is that of its best match there, and its rarity is the number of
+     * dependencies it matches at all. Otherwise a rare completion such as "caching" would
+     * outrank the common word "cache" that is being typed.
+     */
+    int search(String query, int[] ordinals, int[] scores) {
+        var queryWords = distinct(words(query));
+        int touchedCount = 0;
+        for (int w = 0; w < queryWords.size(); w++) {
+            String word = queryWords.get(w);
+            int from = lowerBound(word);
+            int to = w == queryWords.size() - 1 ? prefixEnd(word, from) : exactEnd(word, from);
+
+            int matched = 0;
+            for (int t = from; t < to; t++) {
+                for (int p = postingStart[t]; p < postingStart[t + 1]; p++) {
+                    int ordinal = postingOrdinals[p];
+                    double tf = postingFrequencies[p];
+                    double saturated = tf * (K1 + 1) / (tf + lengthNorm[ordinal]);
+                    if (best[ordinal] == 0) touchedByTerm[matched++] = ordinal;
+                    if (saturated > best[ordinal]) best[ordinal] = saturated;
+                }
+            }
+            double idf = Math.log(1 + (total.length - matched + 0.5) / (matched + 0.5));
+            for (int i = 0; i < matched; i++) {
+                int ordinal = touchedByTerm[i];
+                if (total[ordinal] == 0) touched[touchedCount++] = ordinal;
+                total[ordinal] += idf * best[ordinal];
+                best[ordinal] = 0;
+            }
+        }
+
+        for (int i = 0; i < touchedCount; i++) {
+            int ordinal = touched[i];
+            ordinals[i] = ordinal;
+            scores[i] = Math.max(1, (int) (total[ordinal] * SCALE));
+            total[ordinal] = 0;
+        }
+        return touchedCount;
+    }
+
+    /**
+     * Positions in {@code name} of the words that {@code query} matched, ascending, or null.
+     */
+    static int[] matchPositions(String name, String query) {
+        var queryWords = distinct(words(query));
+        if (name == null || queryWords.isEmpty()) return null;
+        String last = queryWords.getLast();
+        var positions = new int[name.length()];
+        int count = 0;
+        int start = -1;
+        for (int i = 0; i <= name.length(); i++) {
+            boolean inWord = i < name.length() && Character.isLetterOrDigit(name.charAt(i));
+            if (inWord && start < 0) {
+                start = i;
+            } else if (!inWord && start >= 0) {
+                String word = name.substring(start, i).toLowerCase();
+                if (queryWords.contains(word) || word.startsWith(last)) {
+                    for (int p = start; p < i; p++) positions[count++] = p;
+                }
+                start = -1;
+            }
+        }
+        return count > 0 ? Arrays.copyOf(positions, count) : null;
+    }
+
+    private static List<String> distinct(List<String> words) {
+        var distinct = new ArrayList<String>(words.size());
+        for (String word : words) {
+            // The last word stays last, since it is the one matched as a prefix
+            distinct.remove(word);
+            distinct.add(word);
+        }
+        return distinct;
+    }
+
+    /** Index of the first term not less than {@code word}. */
+    private int lowerBound(String word) {
+        int low = 0;
+        int high = terms.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (terms[mid].compareTo(word) < 0) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+
+    private int exactEnd(String word, int from) {
+        return from < terms.length && terms[from].equals(word) ? from + 1 : from;
+    }
+
+    private int prefixEnd(String prefix, int from) {
+        int to = from;
+        while (to < terms.length && terms[to].startsWith(prefix)) to++;
+        return to;
+    }
+
+    /** Growable int array, used while building. */
+    private static final class IntList {
+        private int[] values = new int[1024];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+
+        int get(int i) {
+            return values[i];
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package dev.danvega.initializr.ui;
+
+import dev.danvega.initializr.api.DependencyCatalog;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Finds dependencies whose name or id has words a few typos away from the words of a
+ * query, for when fuzzy matching finds little: "kafak" or "postgress" match nothing as
+ * subsequences. A typo is an inserted, deleted, substituted or swapped character, counted
+ * with the (restricted) Damerau-Levenshtein distance; {@link #maxDistance} says how many
+ * a word of a given length may have.
+ * <p>
+ * The distinct words are sorted, which makes them a trie walked in order: words sharing a
+ * prefix are adjacent, so the edit-distance row of each prefix character is computed once
+ * and reused by the next word. Once every entry of a row exceeds the allowed distance no
+ * word with that prefix can match, and the whole run of them is skipped. Searching reuses
+ * scratch arrays and is not thread-safe.
+ */
+final class TypoIndex {
+
+    private final String[] words;
+    private final int[][] postings;
+    private final int maxWordLength;
+
+    // Scratch space reused by every search
+    private int[] rows = new int[0];
+    private final int[] wordsMatched;
+    private final int[] distanceSum;
+    private final int[] bestDistance;
+    private final int[] seenForWord;
+    private final int[] touched;
+    private int stamp;
+
+    TypoIndex(DependencyCatalog catalog) {
+        var ordinalsByWord = new TreeMap<String, List<Integer>>();
+        for (int ordinal = 0; ordinal < catalog.size(); ordinal++) {
+            var dep = catalog.dependency(ordinal);
+            var depWords = TextIndex.words(dep.name());
+            depWords.addAll(TextIndex.words(dep.id()));
+            for (String word : depWords) {
+                // Numbers, such as a version in an id, are not misspelled words
+                if (word.chars().allMatch(Character::isDigit)) continue;
+                var ordinals = ordinalsByWord.computeIfAbsent(word, w -> new ArrayList<>());
+                if (ordinals.isEmpty() || ordinals.getLast() != ordinal) ordinals.add(ordinal);
+            }
+        }
+        this.words = ordinalsByWord.keySet().toArray(String[]::new);
+        this.postings = new int[words.length][];
+        int longest = 0;
+        for (int id = 0; id < words.length; id++) {
+            postings[id] = ordinalsByWord.get(words[id]).stream().mapToInt(Integer::intValue).toArray();
+            longest = Math.max(longest, words[id].length());
+        }
+        this.maxWordLength = longest;
+
+        int size = catalog.size();
+        this.wordsMatched = new int[size];
+        this.distanceSum = new int[size];
+        this.bestDistance = new int[size];
+        this.seenForWord = new int[size];
+        this.touched = new int[size];
+    }
+
+    /**
+     * Typos tolerated in a query word of {@code length} characters: none below three,
+     * where one edit turns most words into others, and at most two.
+     */
+    static int maxDistance(int length) {
+        return length < 3 ? 0 : length < 6 ? 1 : 2;
+    }
+
+    /**
+     * Dependencies where every word of {@code query} (lowercase) is within
+     * {@link #maxDistance} of a word of the name or id, written to {@code ordinals} in
+     * catalog order with the summed distances of their closest words; returns how many.
+     */
+    int search(String query, int[] ordinals, int[] distances) {
+        var queryWords = TextIndex.words(query);
+        if (queryWords.isEmpty()) return 0;
+
+        int touchedCount = 0;
+        for (int w = 0; w < queryWords.size(); w++) {
+            String queryWord = queryWords.get(w);
+            int k = maxDistance(queryWord.length());
+            int width = queryWord.length() + 1;
+            if (rows.length < (maxWordLength + 1) * width) rows = new int[(maxWordLength + 1) * width];
+            for (int j = 0; j < width; j++) rows[j] = j;
+            stamp++;
+
+            // Rows 0..valid hold the distances for the first characters of previous
+            String previous = "";
+            int valid = 0;
+            int i = 0;
+            while (i < words.length) {
+                String word = words[i];
+                int depth = Math.min(valid, commonPrefix(previous, word));
+                previous = word;
+                boolean pruned = false;
+                while (depth < word.length()) {
+                    depth++;
+                    if (fillRow(word, depth, queryWord, width) > k) {
+                        // No word starting with these characters can match
+                        valid = depth - 1;
+                        i = endOfPrefix(i, word, depth);
+                        pruned = true;
+                        break;
+                    }
+                }
+                if (pruned) continue;
+                valid = depth;
+
+                int d = rows[depth * width + width - 1];
+                if (d <= k) touchedCount = collect(i, d, w, touchedCount);
+                i++;
+            }
+        }
+
+        Arrays.sort(touched, 0, touchedCount);
+        int count = 0;
+        for (int i = 0; i < touchedCount; i++) {
+            int ordinal = touched[i];
+            if (wordsMatched[ordinal] == queryWords.size()) {
+                ordinals[count] = ordinal;
+                distances[count] = distanceSum[ordinal];
+                count++;
+            }
+            wordsMatched[ordinal] = 0;
+            distanceSum[ordinal] = 0;
+        }
+        return count;
+    }
+
+    /**
+     * Record that the dependencies containing word {@code id} match query word {@code w}
+     * at distance {@code d}, keeping each one's closest word; returns the new touched count.
+     */
+    private int collect(int id, int d, int w, int touchedCount) {
+        for (int ordinal : postings[id]) {
+            // Only dependencies that matched every earlier word go on
+            if (wordsMatched[ordinal] < w) continue;
+            if (seenForWord[ordinal] != stamp) {
+                seenForWord[ordinal] = stamp;
+                if (w == 0) touched[touchedCount++] = ordinal;
+                wordsMatched[ordinal] = w + 1;
+                distanceSum[ordinal] += d;
+                bestDistance[ordinal] = d;
+            } else if (d < bestDistance[ordinal]) {
+                distanceSum[ordinal] -= bestDistance[ordinal] - d;
+                bestDistance[ordinal] = d;
+            }
+        }
+        return touchedCount;
+    }
+
+    /**
+     * Compute the row for the first {@code depth} characters of {@code word} against
+     * {@code query} from the rows above it; returns the row's minimum. A row's minimum
+     * never drops further down, so it bounds every longer word with this prefix.
+     */
+    private int fillRow(String word, int depth, String query, int width) {
+        int at = depth * width;
+        int above = at - width;
+        char c = word.charAt(depth - 1);
+        rows[at] = depth;
+        int min = depth;
+        for (int j = 1; j < width; j++) {
+            int cost = query.charAt(j - 1) == c ? 0 : 1;
+            int best = Math.min(rows[above + j - 1] + cost, Math.min(rows[above + j] + 1, rows[at + j - 1] + 1));
+            // Swapped neighbours count as one edit
+            if (depth > 1 && j > 1 && c == query.charAt(j - 2) && word.charAt(depth - 2) == query.charAt(j - 1)) {
+                best = Math.min(best, rows[above - width + j - 2] + 1);
+            }
+            rows[at + j] = best;
+            min = Math.min(min, best);
+        }
+        return min;
+    }
+
+    private static int commonPrefix(String a, String b) {
+        int length = Math.min(a.length(), b.length());
+        int i = 0;
+        while (i < length && a.charAt(i) == b.charAt(i)) i++;
+        return i;
+    }
+
+    /**
+     * Index of the first word after {@code from} not starting with the first
+     * {@code length} characters of {@code word}, the word at {@code from}.
+     */
+    private int endOfPrefix(int from, String word, int length) {
+        int low = from + 1;
+        int high = words.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (words[mid].regionMatches(0, word, 0, length)) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+
+    /**
+     * Restricted Damerau-Levenshtein distance between {@code a} and {@code b}: the edits,
+     * counting a swap of neighbours as one, that turn one into the other.
+     */
+    int distance(String a, String b) {
+        int width = b.length() + 1;
+        var matrix = new int[(a.length() + 1) * width];
+        for (int j = 0; j < width; j++) matrix[j] = j;
+        for (int i = 1; i <= a.length(); i++) {
+            matrix[i * width] = i;
+            for (int j = 1; j < width; j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int best = Math.min(matrix[(i - 1) * width + j - 1] + cost,
+                        Math.min(matrix[(i - 1) * width + j] + 1, matrix[i * width + j - 1] + 1));
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    best = Math.min(best, matrix[(i - 2) * width + j - 2] + 1);
+                }
+                matrix[i * width + j] = best;
+            }
+        }
+        return matrix[a.length() * width + b.length()];
+    }
+}
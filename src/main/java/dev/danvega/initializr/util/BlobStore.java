@@ -0,0 +1,374 @@
+package dev.danvega.initializr.util;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Content-addressed store for generated projects under ~/.spring-initializr/blobs.
+ * Every file is stored once, keyed by its SHA-256, and a manifest per config
+ * fingerprint lists the files that make up that project, so a config generated
+ * before can be materialized without the network.
+ * <p>
+ * Wrapper jars, which are identical across projects and never edited in place, are
+ * hard-linked into place; everything else, including wrapper scripts and properties
+ * that a wrapper upgrade rewrites, is copied so that editing a project never reaches
+ * the store. A blob is named by its hash and never rewritten, so one already in the
+ * store is trusted when its size matches rather than hashed again; one that no longer
+ * matches is replaced on store and makes materialize fall back to a download. A stored
+ * project expires after {@code maxAge}, since start.spring.io's output changes over
+ * time, and the store is kept under a size limit by evicting the least recently used
+ * manifests together with the blobs only they referenced. Blobs stored or reused in the
+ * last {@link #IN_USE_GRACE} are never deleted, as another instance may not have written
+ * the manifest referencing them yet.
+ */
+public class BlobStore {
+
+    private static final Path DEFAULT_BLOB_DIR = Path.of(System.getProperty("user.home"), ".spring-initializr", "blobs");
+    private static final long DEFAULT_MAX_BYTES = 256L * 1024 * 1024;
+    private static final Duration DEFAULT_MAX_AGE = Duration.ofDays(7);
+    private static final Set<String> LINKABLE_PATHS = Set.of(
+            ".mvn/wrapper/maven-wrapper.jar", "gradle/wrapper/gradle-wrapper.jar");
+    // What start.spring.io records for wrapper jars, which share the blob's mode when linked
+    private static final int BLOB_MODE = 0644;
+    static final Duration IN_USE_GRACE = Duration.ofMinutes(10);
+
+    private final Path objectsDir;
+    private final Path manifestsDir;
+    private final Path tmpDir;
+    private final long maxBytes;
+    private final Duration maxAge;
+    private final JsonMapper jsonMapper;
+
+    public BlobStore() {
+        this(DEFAULT_BLOB_DIR, DEFAULT_MAX_BYTES, DEFAULT_MAX_AGE);
+    }
+
+    public BlobStore(Path blobDir, long maxBytes) {
+        this(blobDir, maxBytes, DEFAULT_MAX_AGE);
+    }
+
+    public BlobStore(Path blobDir, long maxBytes, Duration maxAge) {
+        this.objectsDir = blobDir.resolve("objects");
+        this.manifestsDir = blobDir.resolve("manifests");
+        this.tmpDir = blobDir.resolve("tmp");
+        this.maxBytes = maxBytes;
+        this.maxAge = maxAge;
+        this.jsonMapper = JsonMapper.builder().build();
+    }
+
+    /**
+     * A file of a generated project, or a directory when {@code sha256} is null.
+     * {@code mode} holds the file's Unix permission bits, 0 if unknown.
+     */
+    public record Entry(String path, String sha256, long size, int mode) {}
+
+    /**
+     * The files of the project generated for {@code fingerprint}; {@code storedAt} is the
+     * epoch millis at which it was downloaded.
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Manifest(String fingerprint, long storedAt, List<Entry> entries) {}
+
+    /**
+     * Materialize the project stored for {@code fingerprint} into {@code destDir}.
+     * Returns false without touching {@code destDir} when nothing is stored, when the
+     * project is older than {@code maxAge}, or when a blob is missing or corrupt; the
+     * manifest is then dropped so the project is downloaded and stored afresh.
+     */
+    public boolean materialize(String fingerprint, Path destDir) throws IOException {
+        Path manifestFile = manifestFile(fingerprint);
+        Manifest manifest = readManifest(manifestFile);
+        if (manifest == null) return false;
+        if (!Instant.ofEpochMilli(manifest.storedAt()).plus(maxAge).isAfter(Instant.now())) {
+            Files.deleteIfExists(manifestFile);
+            return false;
+        }
+
+        for (var entry : manifest.entries()) {
+            if (entry.sha256() != null && !isStored(entry.sha256(), entry.size())) {
+                Files.deleteIfExists(manifestFile);
+                return false;
+            }
+        }
+        Files.createDirectories(destDir);
+        for (var entry : manifest.entries()) {
+            Path target = ZipExtractor.entryPath(destDir, entry.path());
+            if (entry.sha256() == null) {
+                Files.createDirectories(target);
+            } else {
+                Files.createDirectories(target.getParent());
+                place(blobFile(entry.sha256()), target, entry.path());
+                // Leaves linked wrapper jars alone, whose mode is the blob's
+                ZipExtractor.setMode(target, entry.mode());
+            }
+        }
+        // The manifest's modification time is its last use, for eviction
+        Files.setLastModifiedTime(manifestFile, FileTime.from(Instant.now()));
+        return true;
+    }
+
+    /**
+     * Extract {@code zip} into {@code destDir} as it is read, adding every file to the
+     * store and recording the manifest for {@code fingerprint}.
+     */
+    public void store(String fingerprint, InputStream zip, Path destDir) throws IOException {
+        store(fingerprint, zip, destDir, EntryTransform.NONE);
+    }
+
+    /**
+     * Like {@link #store(String, InputStream, Path)}, storing entries as rewritten by
+     * {@code transform}; the fingerprint must account for the transform.
+     */
+    public void store(String fingerprint, InputStream zip, Path destDir, EntryTransform transform)
+            throws IOException {
+        Files.createDirectories(tmpDir);
+        var stored = new ConcurrentHashMap<String, Entry>();
+        var entries = ZipExtractor.extract(zip, destDir, transform,
+                (name, in, target) -> stored.put(name, storeFile(name, in, target)));
+        finishStore(fingerprint, entries, transform, stored);
+    }
+
+    /**
+     * Like {@link #store(String, InputStream, Path, EntryTransform)} for an archive already
+     * in memory.
+     */
+    public void store(String fingerprint, ZipArchive archive, Path destDir, EntryTransform transform)
+            throws IOException {
+        Files.createDirectories(tmpDir);
+        var stored = new ConcurrentHashMap<String, Entry>();
+        ZipExtractor.extract(archive, destDir, transform,
+                (name, in, target) -> stored.put(name, storeFile(name, in, target)));
+        finishStore(fingerprint, archive.entries(), transform, stored);
+    }
+
+    /**
+     * Write a project file to {@code target} and add it to the store. The file is written
+     * once, straight to the project; only content the store does not have yet is copied
+     * into it. Wrapper jars go to the store first, so that the project can link to them.
+     */
+    private Entry storeFile(String name, InputStream in, Path target) throws IOException {
+        Files.deleteIfExists(target);
+        if (!isLinkable(name)) {
+            var entry = write(name, in, target);
+            if (!isStored(entry.sha256(), entry.size())) addBlob(target, entry.sha256());
+            return entry;
+        }
+        Path tmp = Files.createTempFile(tmpDir, "blob", ".tmp");
+        try {
+            var entry = write(name, in, tmp);
+            if (!isStored(entry.sha256(), entry.size())) addBlob(tmp, entry.sha256());
+            place(blobFile(entry.sha256()), target, name);
+            return entry;
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static Entry write(String name, InputStream in, Path file) throws IOException {
+        var digest = sha256();
+        long size;
+        try (var out = new DigestOutputStream(Files.newOutputStream(file), digest)) {
+            size = in.transferTo(out);
+        }
+        return new Entry(name, HexFormat.of().formatHex(digest.digest()), size, 0);
+    }
+
+    private void addBlob(Path source, String sha256) throws IOException {
+        Path tmp = Files.createTempFile(tmpDir, "blob", ".tmp");
+        try {
+            Files.copy(source, tmp, StandardCopyOption.REPLACE_EXISTING);
+            ZipExtractor.setMode(tmp, BLOB_MODE);
+            Path blob = blobFile(sha256);
+            Files.createDirectories(blob.getParent());
+            // Replaces a blob changed through a link with a new file; projects linked to the old one keep it
+            move(tmp, blob);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private void finishStore(String fingerprint, List<ZipArchive.Entry> zipEntries, EntryTransform transform,
+                             Map<String, Entry> stored) throws IOException {
+        // In the archive's order, with the modes from its central directory
+        var entries = new ArrayList<Entry>(zipEntries.size());
+        for (var zipEntry : zipEntries) {
+            String name = transform.targetName(zipEntry.name());
+            var file = stored.get(name);
+            entries.add(zipEntry.isDirectory() || file == null
+                    ? new Entry(name, null, 0, 0)
+                    : new Entry(file.path(), file.sha256(), file.size(), zipEntry.mode()));
+        }
+        writeManifest(new Manifest(fingerprint, System.currentTimeMillis(), entries));
+        evict();
+    }
+
+    private void place(Path blob, Path target, String name) throws IOException {
+        Files.deleteIfExists(target);
+        if (isLinkable(name)) {
+            try {
+                Files.createLink(target, blob);
+                return;
+            } catch (IOException | UnsupportedOperationException e) {
+                // createLink throws either when the file system has no hard links, or the
+                // project is on another one than the store: copy instead
+            }
+        }
+        Files.copy(blob, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    static boolean isLinkable(String path) {
+        return LINKABLE_PATHS.stream().anyMatch(linkable -> path.equals(linkable) || path.endsWith("/" + linkable));
+    }
+
+    /**
+     * Whether the blob {@code sha256} is present with the expected size. A present blob
+     * is marked as in use, so that no instance evicts it before its manifest is written.
+     */
+    private boolean isStored(String sha256, long size) throws IOException {
+        Path blob = blobFile(sha256);
+        try {
+            if (Files.size(blob) != size) return false;
+            Files.setLastModifiedTime(blob, FileTime.from(Instant.now()));
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Drop least recently used manifests until the blobs still referenced fit in
+     * {@code maxBytes}. Blobs no manifest references are deleted along the way, unless
+     * they were stored or reused within {@link #IN_USE_GRACE}.
+     */
+    synchronized void evict() throws IOException {
+        long inUseSince = System.currentTimeMillis() - IN_USE_GRACE.toMillis();
+        var manifests = new ArrayList<Path>();
+        if (Files.isDirectory(manifestsDir)) {
+            try (var stream = Files.list(manifestsDir)) {
+                stream.filter(p -> p.toString().endsWith(".json")).forEach(manifests::add);
+            }
+        }
+        manifests.sort(Comparator.comparing(BlobStore::lastModified));
+
+        var refs = new HashMap<String, Integer>();
+        var loaded = new HashMap<Path, Manifest>();
+        for (Path file : manifests) {
+            Manifest manifest = readManifest(file);
+            if (manifest == null) continue;
+            loaded.put(file, manifest);
+            for (var entry : manifest.entries()) {
+                if (entry.sha256() != null) refs.merge(entry.sha256(), 1, Integer::sum);
+            }
+        }
+
+        long total = 0;
+        var sizes = new HashMap<String, Long>();
+        if (Files.isDirectory(objectsDir)) {
+            try (var stream = Files.walk(objectsDir)) {
+                for (Path blob : (Iterable<Path>) stream.filter(Files::isRegularFile)::iterator) {
+                    String hash = blob.getParent().getFileName().toString() + blob.getFileName();
+                    if (!refs.containsKey(hash)) {
+                        deleteUnlessInUse(blob, inUseSince);
+                    } else {
+                        long size = Files.size(blob);
+                        sizes.put(hash, size);
+                        total += size;
+                    }
+                }
+            }
+        }
+
+        for (Path file : manifests) {
+            if (total <= maxBytes) break;
+            Files.deleteIfExists(file);
+            Manifest manifest = loaded.get(file);
+            if (manifest == null) continue;
+            for (var entry : manifest.entries()) {
+                if (entry.sha256() == null) continue;
+                if (refs.merge(entry.sha256(), -1, Integer::sum) == 0) {
+                    // No longer counted even if kept: the limit is on referenced blobs
+                    deleteUnlessInUse(blobFile(entry.sha256()), inUseSince);
+                    total -= sizes.getOrDefault(entry.sha256(), 0L);
+                }
+            }
+        }
+    }
+
+    private static void deleteUnlessInUse(Path blob, long inUseSince) throws IOException {
+        if (lastModified(blob).toMillis() < inUseSince) Files.deleteIfExists(blob);
+    }
+
+    private Manifest readManifest(Path file) {
+        if (!Files.exists(file)) return null;
+        try {
+            return jsonMapper.readValue(file, Manifest.class);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private void writeManifest(Manifest manifest) throws IOException {
+        Files.createDirectories(manifestsDir);
+        Path tmp = Files.createTempFile(tmpDir, "manifest", ".tmp");
+        try {
+            Files.write(tmp, jsonMapper.writeValueAsBytes(manifest));
+            move(tmp, manifestFile(manifest.fingerprint()));
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private Path manifestFile(String fingerprint) {
+        return manifestsDir.resolve(fingerprint + ".json");
+    }
+
+    Path blobFile(String sha256) {
+        return objectsDir.resolve(sha256.substring(0, 2)).resolve(sha256.substring(2));
+    }
+
+    private static FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
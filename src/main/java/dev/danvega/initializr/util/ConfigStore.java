@@ -74,11 +74,15 @@ public class ConfigStore {
         private String lastApplicationFormat = "properties";
         private String postGenerateCommand = "";
         private String theme = "spring";
+        private long metadataMaxStalenessHours = 24;
         private List<List<String>> recentDependencies = new ArrayList<>();
 
         public String getTheme() { return theme; }
         public void setTheme(String v) { this.theme = v; }
 
+        public long getMetadataMaxStalenessHours() { return metadataMaxStalenessHours; }
+        public void setMetadataMaxStalenessHours(long v) { this.metadataMaxStalenessHours = v; }
+
         public String getPostGenerateCommand() { return postGenerateCommand; }
         public void setPostGenerateCommand(String v) { this.postGenerateCommand = v; }
 
@@ -0,0 +1,72 @@
+package dev.danvega.initializr.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Tells text from binary content by its first few KB rather than by file extension:
+ * a NUL byte, or too many invalid UTF-8 sequences and control characters, mean binary.
+ */
+public final class ContentSniffer {
+
+    public static final int SNIFF_BYTES = 8192;
+
+    // Share of suspicious bytes tolerated in text, e.g. a stray Latin-1 character
+    private static final double MAX_SUSPICIOUS_RATIO = 0.1;
+
+    private ContentSniffer() {}
+
+    /**
+     * Read {@code in} as UTF-8 text, or return null without reading past the first
+     * {@link #SNIFF_BYTES} bytes if the content looks binary.
+     */
+    public static String readText(InputStream in) throws IOException {
+        byte[] head = in.readNBytes(SNIFF_BYTES);
+        if (!isText(head)) return null;
+        if (head.length < SNIFF_BYTES) return new String(head, StandardCharsets.UTF_8);
+        // Decode as a whole so a character split across the sample boundary stays intact
+        var out = new ByteArrayOutputStream(head.length * 2);
+        out.write(head);
+        in.transferTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Whether {@code sample}, the start of some content, looks like UTF-8 text.
+     */
+    public static boolean isText(byte[] sample) {
+        int suspicious = 0;
+        int i = 0;
+        while (i < sample.length) {
+            int b = sample[i] & 0xFF;
+            if (b == 0) return false;
+            if (b < 0x80) {
+                // Tab, line feed, form feed, carriage return and escape appear in text files
+                if (b < 0x20 && b != '\t' && b != '\n' && b != '\f' && b != '\r' && b != 0x1B || b == 0x7F) {
+                    suspicious++;
+                }
+                i++;
+                continue;
+            }
+            int length = b >= 0xC2 && b <= 0xDF ? 2 : b >= 0xE0 && b <= 0xEF ? 3 : b >= 0xF0 && b <= 0xF4 ? 4 : 0;
+            // A sequence cut off by the end of the sample is not held against it
+            if (length > 0 && i + length > sample.length) break;
+            if (length == 0 || !continuations(sample, i + 1, i + length)) {
+                suspicious++;
+                i++;
+            } else {
+                i += length;
+            }
+        }
+        return suspicious <= sample.length * MAX_SUSPICIOUS_RATIO;
+    }
+
+    private static boolean continuations(byte[] bytes, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if ((bytes[i] & 0xC0) != 0x80) return false;
+        }
+        return true;
+    }
+}
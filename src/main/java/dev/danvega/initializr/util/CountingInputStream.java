@@ -0,0 +1,53 @@
+package dev.danvega.initializr.util;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.LongConsumer;
+
+/**
+ * Counts the bytes read through it and reports the running total after each read.
+ */
+public class CountingInputStream extends FilterInputStream {
+
+    private final LongConsumer onProgress;
+    private long count;
+
+    public CountingInputStream(InputStream in, LongConsumer onProgress) {
+        super(in);
+        this.onProgress = onProgress;
+    }
+
+    public long getCount() { return count; }
+
+    @Override
+    public int read() throws IOException {
+        int b = in.read();
+        if (b >= 0) advance(1);
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int n = in.read(b, off, len);
+        if (n > 0) advance(n);
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = in.skip(n);
+        if (skipped > 0) advance(skipped);
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    private void advance(long n) {
+        count += n;
+        onProgress.accept(count);
+    }
+}
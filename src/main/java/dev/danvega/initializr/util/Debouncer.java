@@ -0,0 +1,42 @@
+package dev.danvega.initializr.util;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the most recently submitted task once no new task has been submitted for the
+ * quiet period. Tasks run on a single daemon thread and should hand long work off.
+ */
+public class Debouncer implements AutoCloseable {
+
+    private final Duration quietPeriod;
+    private final ScheduledExecutorService scheduler;
+    private ScheduledFuture<?> pending;
+
+    public Debouncer(String name, Duration quietPeriod) {
+        this.quietPeriod = quietPeriod;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name(name).daemon().factory());
+    }
+
+    /**
+     * Schedule {@code task}, replacing any task that has not started yet.
+     */
+    public synchronized void submit(Runnable task) {
+        if (pending != null) pending.cancel(false);
+        pending = scheduler.schedule(task, quietPeriod.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    public synchronized void cancel() {
+        if (pending != null) pending.cancel(false);
+        pending = null;
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
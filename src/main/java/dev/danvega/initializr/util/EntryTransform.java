@@ -0,0 +1,49 @@
+package dev.danvega.initializr.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Rewrites matching ZIP entries while they are extracted, e.g. {@code application.properties}
+ * into {@code application.yml}. Extraction to disk and the Explore screen apply the same
+ * transform, so both show the same project and the original entry is never written.
+ */
+public interface EntryTransform {
+
+    /**
+     * Leaves every entry as it is.
+     */
+    EntryTransform NONE = new EntryTransform() {
+        @Override
+        public boolean appliesTo(String name) {
+            return false;
+        }
+
+        @Override
+        public String rename(String name) {
+            return name;
+        }
+
+        @Override
+        public void transform(InputStream in, OutputStream out) throws IOException {
+            in.transferTo(out);
+        }
+    };
+
+    boolean appliesTo(String name);
+
+    /**
+     * The name an entry this transform applies to is extracted under.
+     */
+    String rename(String name);
+
+    void transform(InputStream in, OutputStream out) throws IOException;
+
+    /**
+     * The name entry {@code name} ends up with after this transform.
+     */
+    default String targetName(String name) {
+        return appliesTo(name) ? rename(name) : name;
+    }
+}
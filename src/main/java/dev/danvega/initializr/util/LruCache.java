@@ -0,0 +1,74 @@
+package dev.danvega.initializr.util;
+
+import java.util.LinkedHashMap;
+import java.util.function.ToLongFunction;
+
+/**
+ * Thread-safe least-recently-used cache bounded by both entry count and total weight
+ * (e.g. bytes). Tracks hit and miss counts.
+ */
+public class LruCache<K, V> {
+
+    private final int maxEntries;
+    private final long maxWeight;
+    private final ToLongFunction<V> weigher;
+    // Access-ordered: iteration starts at the least recently used entry
+    private final LinkedHashMap<K, V> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long weight;
+    private long hits;
+    private long misses;
+
+    public LruCache(int maxEntries, long maxWeight, ToLongFunction<V> weigher) {
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+    }
+
+    /**
+     * Return the cached value and mark it most recently used, or {@code null} on a miss.
+     */
+    public synchronized V get(K key) {
+        V value = entries.get(key);
+        if (value != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return value;
+    }
+
+    /**
+     * Add or replace a value, evicting least recently used entries until both bounds hold.
+     * A value heavier than the whole cache is not stored.
+     */
+    public synchronized void put(K key, V value) {
+        long w = weigher.applyAsLong(value);
+        V previous = entries.remove(key);
+        if (previous != null) weight -= weigher.applyAsLong(previous);
+        if (w > maxWeight) return;
+
+        entries.put(key, value);
+        weight += w;
+        var it = entries.values().iterator();
+        while (entries.size() > maxEntries || weight > maxWeight) {
+            weight -= weigher.applyAsLong(it.next());
+            it.remove();
+        }
+    }
+
+    public synchronized V remove(K key) {
+        V previous = entries.remove(key);
+        if (previous != null) weight -= weigher.applyAsLong(previous);
+        return previous;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        weight = 0;
+    }
+
+    public synchronized int size() { return entries.size(); }
+    public synchronized long weight() { return weight; }
+    public synchronized long hits() { return hits; }
+    public synchronized long misses() { return misses; }
+}
@@ -0,0 +1,210 @@
+package dev.danvega.initializr.util;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Persists the last start.spring.io metadata response and its validators
+ * (ETag / Last-Modified) to ~/.spring-initializr/ so the next launch can
+ * start from it and revalidate in the background.
+ */
+public class MetadataCache {
+
+    private static final Path DEFAULT_CACHE_DIR = Path.of(System.getProperty("user.home"), ".spring-initializr");
+
+    private final Path cacheDir;
+    private final Path bodyFile;
+    private final Path infoFile;
+    private final JsonMapper jsonMapper;
+
+    public MetadataCache() {
+        this(DEFAULT_CACHE_DIR);
+    }
+
+    public MetadataCache(Path cacheDir) {
+        this.cacheDir = cacheDir;
+        this.bodyFile = cacheDir.resolve("metadata.json");
+        this.infoFile = cacheDir.resolve("metadata-cache.json");
+        this.jsonMapper = JsonMapper.builder().build();
+    }
+
+    public Optional<Entry> load() {
+        if (!Files.exists(bodyFile) || !Files.exists(infoFile)) {
+            return Optional.empty();
+        }
+        try {
+            var info = jsonMapper.readValue(infoFile, CacheInfo.class);
+            return Optional.of(new Entry(info.etag(), info.lastModified(), info.fetchedAt(), info.sha256()));
+        } catch (Exception e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Open the cached metadata body for streaming parsing.
+     */
+    public InputStream openBody() throws IOException {
+        return Files.newInputStream(bodyFile);
+    }
+
+    /**
+     * Wrap a response body so that everything read through it is also written to the
+     * cache, letting the caller parse and persist the body in a single pass.
+     * Nothing replaces the current cache until {@link Recorder#commit} is called.
+     */
+    public Recorder record(InputStream body) throws IOException {
+        Files.createDirectories(cacheDir);
+        return new Recorder(body, Files.createTempFile(cacheDir, "metadata", ".tmp"));
+    }
+
+    /**
+     * Store a complete body, e.g. one that did not come from the network.
+     */
+    public void save(InputStream body, String etag, String lastModified, long fetchedAt) throws IOException {
+        try (var recorder = record(body)) {
+            recorder.drain();
+            recorder.commit(etag, lastModified, fetchedAt);
+        }
+    }
+
+    /**
+     * Record that the cached body was just confirmed current (HTTP 304).
+     */
+    public Entry touch(Entry entry) {
+        var touched = new Entry(entry.etag(), entry.lastModified(), System.currentTimeMillis(), entry.sha256());
+        try {
+            writeInfo(touched);
+        } catch (Exception e) {
+            // Silently fail — the cache only speeds up startup
+        }
+        return touched;
+    }
+
+    private void writeInfo(Entry entry) throws IOException {
+        Files.createDirectories(cacheDir);
+        jsonMapper.writeValue(infoFile,
+                new CacheInfo(entry.etag(), entry.lastModified(), entry.fetchedAt(), entry.sha256()));
+    }
+
+    /**
+     * Validators and bookkeeping for the cached body. {@code fetchedAt} is the epoch
+     * millis of the last 200 or 304 response; {@code sha256} identifies the body so an
+     * unconditional 200 with identical content can be recognized.
+     */
+    public record Entry(String etag, String lastModified, long fetchedAt, String sha256) {
+
+        public boolean isFresh(Duration maxStaleness) {
+            return Instant.ofEpochMilli(fetchedAt).plus(maxStaleness).isAfter(Instant.now());
+        }
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record CacheInfo(String etag, String lastModified, long fetchedAt, String sha256) {}
+
+    /**
+     * Tees a body stream into a temp file in the cache directory while hashing it.
+     */
+    public final class Recorder extends FilterInputStream {
+
+        private final Path tmp;
+        private final OutputStream out;
+        private final MessageDigest digest;
+        private boolean committed;
+
+        private Recorder(InputStream in, Path tmp) throws IOException {
+            super(in);
+            this.tmp = tmp;
+            this.out = Files.newOutputStream(tmp);
+            try {
+                this.digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = in.read();
+            if (b >= 0) {
+                out.write(b);
+                digest.update((byte) b);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = in.read(b, off, len);
+            if (n > 0) {
+                out.write(b, off, n);
+                digest.update(b, off, n);
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            // Skipped bytes still have to reach the cache file
+            return Math.max(0, read(new byte[(int) Math.min(n, 8192)]));
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        /**
+         * Read whatever the parser left unread (e.g. trailing whitespace) so the copy is complete.
+         */
+        public void drain() throws IOException {
+            transferTo(OutputStream.nullOutputStream());
+        }
+
+        /**
+         * Hex SHA-256 of everything read so far; call after {@link #drain()}.
+         */
+        public String sha256() {
+            try {
+                return HexFormat.of().formatHex(((MessageDigest) digest.clone()).digest());
+            } catch (CloneNotSupportedException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        /**
+         * Atomically replace the cached body with the recorded one and store its validators.
+         */
+        public Entry commit(String etag, String lastModified, long fetchedAt) throws IOException {
+            out.close();
+            Files.move(tmp, bodyFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            committed = true;
+            var entry = new Entry(etag, lastModified, fetchedAt, sha256());
+            writeInfo(entry);
+            return entry;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                out.close();
+                super.close();
+            } finally {
+                if (!committed) Files.deleteIfExists(tmp);
+            }
+        }
+    }
+}
@@ -0,0 +1,513 @@
+package dev.danvega.initializr.util;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * Converts {@code application.properties} entries into {@code application.yml}.
+ * <p>
+ * The properties are parsed with {@link java.util.Properties} syntax (continuation lines,
+ * {@code =}, {@code :} or whitespace separators, escapes, {@code #} and {@code !} comments)
+ * into a trie of key segments in a single pass, and the trie is then written out as YAML.
+ * Keys sharing a prefix therefore share one YAML parent wherever they appear in the file,
+ * {@code foo[0]} indices become sequences, and {@code [a.b]} map keys stay intact. Comments
+ * are kept above the key that follows them, and {@code #---} starts a new YAML document.
+ * <p>
+ * Any later line may add to any prefix, so a document is only written once it has been
+ * read in full. That costs more time and allocation than the line-by-line rewrite this
+ * replaced (see {@code PropertiesToYamlScaleTest}), for output without repeated parents.
+ */
+public class PropertiesToYaml implements EntryTransform {
+
+    private static final String PROPERTIES = "application.properties";
+    private static final String YAML = "application.yml";
+    private static final String INDENT = "  ";
+    // Plain scalars that YAML 1.1 (SnakeYAML) would read as something other than the same string
+    private static final Set<String> YAML_KEYWORDS = Set.of(
+            "null", "~", "yes", "no", "on", "off", "true", "false");
+    private static final Pattern PLAIN_NUMBER = Pattern.compile("-?(0|[1-9][0-9]*)(\\.[0-9]+)?");
+    // YAML 1.1 int and float forms
+    private static final Pattern YAML_NUMBER = Pattern.compile(
+            "[-+]?(\\.[0-9]+|[0-9][0-9_]*(\\.[0-9_]*)?)([eE][-+]?[0-9]+)?"
+                    + "|[-+]?0[xob][0-9a-fA-F_]+"
+                    + "|[-+]?[0-9][0-9_]*(:[0-5]?[0-9])+(\\.[0-9_]*)?"
+                    + "|[-+]?\\.(inf|Inf|INF)|\\.(nan|NaN|NAN)");
+
+    @Override
+    public boolean appliesTo(String name) {
+        return name.equals(PROPERTIES) || name.endsWith("/" + PROPERTIES);
+    }
+
+    @Override
+    public String rename(String name) {
+        return name.substring(0, name.length() - PROPERTIES.length()) + YAML;
+    }
+
+    @Override
+    public void transform(InputStream in, OutputStream out) throws IOException {
+        var yaml = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        convert(new InputStreamReader(in, StandardCharsets.UTF_8), yaml);
+        yaml.flush();
+    }
+
+    static String convert(String properties) {
+        var yaml = new StringWriter();
+        try {
+            convert(new StringReader(properties), yaml);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return yaml.toString();
+    }
+
+    /**
+     * Read properties from {@code in} and write the equivalent YAML to {@code out}.
+     */
+    public static void convert(Reader in, Writer out) throws IOException {
+        var lines = new LogicalLines(in);
+        var root = new Node();
+        var comments = new ArrayList<String>();
+        String line;
+        while ((line = lines.next()) != null) {
+            char first = line.charAt(0);
+            if (first == '#' || first == '!') {
+                if (line.substring(1).equals("---")) {
+                    // Multi-document properties file: flush what we have as its own document
+                    new Emitter(out).document(root, comments);
+                    out.write("---\n");
+                    root = new Node();
+                    comments = new ArrayList<>();
+                } else {
+                    comments.add(line.substring(1));
+                }
+                continue;
+            }
+            var entry = parseEntry(line);
+            root.put(segments(entry[0]), entry[1], comments);
+            if (!comments.isEmpty()) comments = new ArrayList<>();
+        }
+        new Emitter(out).document(root, comments);
+    }
+
+    // --- parsing ---
+
+    /**
+     * Reads logical lines as {@link java.util.Properties#load(Reader)} does: blank lines are
+     * skipped, leading whitespace is dropped, and a line ending in an odd number of
+     * backslashes continues on the next one. Escapes are left for {@link #unescape}.
+     */
+    private static final class LogicalLines {
+
+        private final BufferedReader reader;
+
+        LogicalLines(Reader in) {
+            this.reader = in instanceof BufferedReader buffered ? buffered : new BufferedReader(in);
+        }
+
+        String next() throws IOException {
+            String natural;
+            while ((natural = reader.readLine()) != null) {
+                String line = stripLeading(natural);
+                if (line.isEmpty()) continue;
+                // Comments end at the end of their line, even after a backslash
+                if (line.charAt(0) == '#' || line.charAt(0) == '!') return line;
+
+                if (!endsWithContinuation(line)) return line;
+                var logical = new StringBuilder();
+                while (endsWithContinuation(line)) {
+                    logical.append(line, 0, line.length() - 1);
+                    String continued = reader.readLine();
+                    if (continued == null) return logical.toString();
+                    line = stripLeading(continued);
+                }
+                return logical.append(line).toString();
+            }
+            return null;
+        }
+
+        private static boolean endsWithContinuation(String line) {
+            int backslashes = 0;
+            for (int i = line.length() - 1; i >= 0 && line.charAt(i) == '\\'; i--) {
+                backslashes++;
+            }
+            return backslashes % 2 == 1;
+        }
+
+        private static String stripLeading(String line) {
+            int i = 0;
+            while (i < line.length() && isWhitespace(line.charAt(i))) i++;
+            return i == 0 ? line : line.substring(i);
+        }
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\f';
+    }
+
+    /**
+     * Split a logical line into its unescaped key and value. The key ends at the first
+     * unescaped {@code =}, {@code :} or whitespace; whitespace around the separator is dropped.
+     */
+    private static String[] parseEntry(String line) throws IOException {
+        int keyEnd = 0;
+        boolean escaped = false;
+        for (; keyEnd < line.length(); keyEnd++) {
+            char c = line.charAt(keyEnd);
+            if (escaped) {
+                escaped = false;
+            } else if (c == '\\') {
+                escaped = true;
+            } else if (c == '=' || c == ':' || isWhitespace(c)) {
+                break;
+            }
+        }
+        int valueStart = keyEnd;
+        while (valueStart < line.length() && isWhitespace(line.charAt(valueStart))) valueStart++;
+        if (valueStart < line.length() && (line.charAt(valueStart) == '=' || line.charAt(valueStart) == ':')) {
+            valueStart++;
+            while (valueStart < line.length() && isWhitespace(line.charAt(valueStart))) valueStart++;
+        }
+        return new String[] {unescape(line, 0, keyEnd), unescape(line, valueStart, line.length())};
+    }
+
+    private static String unescape(String s, int from, int to) throws IOException {
+        int backslash = s.indexOf('\\', from);
+        if (backslash < 0 || backslash >= to) return s.substring(from, to);
+        var sb = new StringBuilder(to - from);
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (c != '\\' || i + 1 >= to) {
+                sb.append(c);
+                continue;
+            }
+            c = s.charAt(++i);
+            switch (c) {
+                case 't' -> sb.append('\t');
+                case 'n' -> sb.append('\n');
+                case 'r' -> sb.append('\r');
+                case 'f' -> sb.append('\f');
+                case 'u' -> {
+                    if (i + 4 >= to) throw new IOException("Malformed \\uxxxx encoding in " + s);
+                    try {
+                        sb.append((char) Integer.parseInt(s, i + 1, i + 5, 16));
+                    } catch (NumberFormatException e) {
+                        throw new IOException("Malformed \\uxxxx encoding in " + s);
+                    }
+                    i += 4;
+                }
+                default -> sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * A key segment: a map key, or a list index when {@code index >= 0}.
+     */
+    private record Segment(String name, int index) {}
+
+    /**
+     * Split a key on dots into segments. {@code foo[0]} adds an index segment and
+     * {@code [a.b]} is kept as one literal map key. A key with empty segments is kept whole.
+     */
+    private static List<Segment> segments(String key) {
+        var whole = List.of(new Segment(key, -1));
+        var segments = new ArrayList<Segment>(4);
+        int start = 0;
+        int i = 0;
+        while (i < key.length()) {
+            char c = key.charAt(i);
+            if (c == '.') {
+                if (i > start) {
+                    segments.add(new Segment(key.substring(start, i), -1));
+                } else if (i == 0 || key.charAt(i - 1) != ']') {
+                    return whole;
+                }
+                start = ++i;
+            } else if (c == '[') {
+                int close = key.indexOf(']', i);
+                if (close < 0) return whole;
+                if (i > start) segments.add(new Segment(key.substring(start, i), -1));
+                int index = index(key, i + 1, close);
+                segments.add(index >= 0 && !segments.isEmpty()
+                        ? new Segment(null, index)
+                        : new Segment(key.substring(i, close + 1), -1));
+                start = i = close + 1;
+            } else {
+                i++;
+            }
+        }
+        if (start < key.length()) segments.add(new Segment(key.substring(start), -1));
+        if (segments.isEmpty() || key.endsWith(".")) return whole;
+        return segments;
+    }
+
+    /**
+     * The list index written between {@code from} and {@code to}, or -1 if it is not one.
+     */
+    private static int index(String key, int from, int to) {
+        if (from == to || to - from > 9) return -1;
+        int index = 0;
+        for (int i = from; i < to; i++) {
+            char c = key.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            index = index * 10 + (c - '0');
+        }
+        return index;
+    }
+
+    // --- trie ---
+
+    private static final class Node {
+
+        String value;
+        List<String> comments;
+        // Most nodes are leaves, so the maps are only created for the first child
+        Map<String, Node> children = Map.of();
+        Map<Integer, Node> items = Map.of();
+
+        /**
+         * Set the value at {@code path}, creating nodes as needed. Pending comments go to
+         * the topmost new node, so they are written right above the lines they describe.
+         */
+        void put(List<Segment> path, String value, List<String> comments) {
+            Node node = this;
+            boolean attached = comments.isEmpty();
+            for (var segment : path) {
+                Node next = segment.index() >= 0 ? node.items.get(segment.index()) : node.children.get(segment.name());
+                if (next == null) {
+                    next = new Node();
+                    if (segment.index() >= 0) {
+                        if (node.items.isEmpty()) node.items = new TreeMap<>();
+                        node.items.put(segment.index(), next);
+                    } else {
+                        if (node.children.isEmpty()) node.children = new LinkedHashMap<>();
+                        node.children.put(segment.name(), next);
+                    }
+                    if (!attached) {
+                        next.comments = comments;
+                        attached = true;
+                    }
+                }
+                node = next;
+            }
+            if (!attached) node.addComments(comments);
+            // As in java.util.Properties, the last occurrence of a key wins
+            node.value = value;
+        }
+
+        void addComments(List<String> more) {
+            if (comments == null) comments = new ArrayList<>();
+            comments.addAll(more);
+        }
+
+        boolean hasChildren() {
+            return !children.isEmpty() || !items.isEmpty();
+        }
+    }
+
+    // --- writing ---
+
+    private static final class Emitter {
+
+        private static final int FLUSH_AT = 8192;
+
+        private final Writer out;
+        // Lines are collected here and written out in chunks rather than piece by piece
+        private final StringBuilder buffer = new StringBuilder(FLUSH_AT + 256);
+        // "- " to write instead of the indentation of the next line, for the first key of a list item
+        private String pendingItem;
+
+        Emitter(Writer out) {
+            this.out = out;
+        }
+
+        void document(Node root, List<String> trailingComments) throws IOException {
+            // A leading index has no parent to be a list of, so it stays a literal key
+            entries(root, 0);
+            for (var item : root.items.entrySet()) {
+                entry("[" + item.getKey() + "]", item.getValue(), 0);
+            }
+            for (String comment : trailingComments) {
+                comment(comment, 0);
+            }
+            flush();
+        }
+
+        private void entries(Node parent, int depth) throws IOException {
+            for (var child : parent.children.entrySet()) {
+                entry(child.getKey(), child.getValue(), depth);
+            }
+        }
+
+        private void entry(String key, Node node, int depth) throws IOException {
+            writeComments(node, depth);
+            if (node.value != null) {
+                line(depth, quoteIfNeeded(key), ": ", scalar(node.value));
+                // YAML cannot give a key both a value and children; Spring also reads dotted keys
+                for (var child : node.children.entrySet()) {
+                    entry(key + "." + child.getKey(), child.getValue(), depth);
+                }
+                for (var item : node.items.entrySet()) {
+                    entry(key + "[" + item.getKey() + "]", item.getValue(), depth);
+                }
+            } else if (node.children.isEmpty() && !fitsSequence(node)) {
+                // An item with both a value and children has no sequence form; index the keys instead
+                for (var item : node.items.entrySet()) {
+                    entry(key + "[" + item.getKey() + "]", item.getValue(), depth);
+                }
+            } else if (node.children.isEmpty()) {
+                line(depth, quoteIfNeeded(key), ":");
+                items(node, depth + 1);
+            } else {
+                line(depth, quoteIfNeeded(key), ":");
+                entries(node, depth + 1);
+                // Indices mixed with named keys: Spring reads "[0]" map keys as indices
+                for (var item : node.items.entrySet()) {
+                    entry("[" + item.getKey() + "]", item.getValue(), depth + 1);
+                }
+            }
+        }
+
+        private void items(Node list, int depth) throws IOException {
+            for (var item : list.items.values()) {
+                writeComments(item, depth);
+                if (!item.hasChildren()) {
+                    line(depth, "- ", scalar(item.value != null ? item.value : ""));
+                } else if (item.children.isEmpty()) {
+                    line(depth, "-");
+                    items(item, depth + 1);
+                } else {
+                    // The item's first key shares the "- " line
+                    pendingItem = INDENT.repeat(depth) + "- ";
+                    entries(item, depth + 1);
+                    for (var nested : item.items.entrySet()) {
+                        entry("[" + nested.getKey() + "]", nested.getValue(), depth + 1);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Whether every item of {@code list}, at any depth, is either a scalar or a
+         * container, as a YAML sequence needs.
+         */
+        private static boolean fitsSequence(Node list) {
+            for (var item : list.items.values()) {
+                if (item.value != null && item.hasChildren()) return false;
+                if (item.children.isEmpty() && !fitsSequence(item)) return false;
+            }
+            return true;
+        }
+
+        private void writeComments(Node node, int depth) throws IOException {
+            if (node.comments == null) return;
+            for (String comment : node.comments) {
+                comment(comment, depth);
+            }
+        }
+
+        private void comment(String text, int depth) throws IOException {
+            String saved = pendingItem;
+            pendingItem = null;
+            line(depth, text.isBlank() ? "#" : "#" + (text.startsWith(" ") ? "" : " ") + text);
+            pendingItem = saved;
+        }
+
+        private void line(int depth, String... parts) throws IOException {
+            if (pendingItem != null) {
+                buffer.append(pendingItem);
+                pendingItem = null;
+            } else {
+                for (int i = 0; i < depth; i++) buffer.append(INDENT);
+            }
+            for (String part : parts) {
+                buffer.append(part);
+            }
+            buffer.append('\n');
+            if (buffer.length() >= FLUSH_AT) flush();
+        }
+
+        private void flush() throws IOException {
+            out.append(buffer);
+            buffer.setLength(0);
+        }
+    }
+
+    private static String quoteIfNeeded(String s) {
+        return needsQuotes(s) ? quote(s) : s;
+    }
+
+    private static String scalar(String value) {
+        return needsQuotes(value) ? quote(value) : value;
+    }
+
+    /**
+     * Whether {@code s} would not read back as the same string if written as a plain YAML scalar.
+     */
+    static boolean needsQuotes(String s) {
+        int length = s.length();
+        if (length == 0) return true;
+        char first = s.charAt(0);
+        char last = s.charAt(length - 1);
+        if (isWhitespace(first) || isWhitespace(last) || last == ':') return true;
+        if ("?:,[]{}#&*!|>'\"%@`".indexOf(first) >= 0) return true;
+        // A dash only starts a sequence entry when followed by a space
+        if (first == '-' && (length == 1 || s.charAt(1) == ' ')) return true;
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            if (Character.isISOControl(c)) return true;
+            if (i + 1 < length && (c == ':' && s.charAt(i + 1) == ' ' || c == ' ' && s.charAt(i + 1) == '#')) {
+                return true;
+            }
+        }
+        if (length <= 5 && YAML_KEYWORDS.contains(s.toLowerCase(Locale.ROOT))) {
+            // true/false come back as the same text once Spring converts them to strings
+            return !s.equals("true") && !s.equals("false");
+        }
+        if ((first < '0' || first > '9') && first != '-' && first != '+' && first != '.') return false;
+        // 0123 (octal), 1_000, 0x1F, 1e3, 1:30 (sexagesimal) would be read as other numbers
+        return YAML_NUMBER.matcher(s).matches() && !PLAIN_NUMBER.matcher(s).matches();
+    }
+
+    private static String quote(String s) {
+        var sb = new StringBuilder(s.length() + 2).append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (Character.isISOControl(c)) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
@@ -0,0 +1,211 @@
+package dev.danvega.initializr.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipException;
+
+/**
+ * Random-access view of a ZIP archive held in memory. The central directory is parsed
+ * once up front, so entries can be listed without reading their data and opened
+ * independently, in any order and from any thread. Unlike {@code ZipInputStream},
+ * which only sees local headers, it also exposes each entry's Unix permissions.
+ * Only what start.spring.io produces is supported: stored and deflated entries, no ZIP64.
+ */
+public final class ZipArchive {
+
+    private static final int EOCD_SIGNATURE = 0x06054b50;
+    private static final int CENTRAL_SIGNATURE = 0x02014b50;
+    private static final int LOCAL_SIGNATURE = 0x04034b50;
+    private static final int EOCD_SIZE = 22;
+    private static final int CENTRAL_HEADER_SIZE = 46;
+    private static final int LOCAL_HEADER_SIZE = 30;
+
+    // "Version made by" host system whose external attributes carry a Unix mode
+    private static final int HOST_UNIX = 3;
+
+    /**
+     * A central directory record; {@code offset} is where the entry's local header starts
+     * and {@code mode} holds the Unix permission bits, or 0 when the archive has none.
+     */
+    public record Entry(String name, int method, long crc, long compressedSize, long size, long offset, int mode) {
+
+        public boolean isDirectory() {
+            return name.endsWith("/");
+        }
+    }
+
+    private final ByteBuffer bytes;
+    private final List<Entry> entries;
+
+    private ZipArchive(ByteBuffer bytes, List<Entry> entries) {
+        this.bytes = bytes;
+        this.entries = entries;
+    }
+
+    /**
+     * Parse the central directory of {@code zip}; the array is used as is, not copied.
+     */
+    public static ZipArchive read(byte[] zip) throws IOException {
+        var buffer = ByteBuffer.wrap(zip).order(ByteOrder.LITTLE_ENDIAN);
+        return new ZipArchive(buffer, readCentralDirectory(buffer, 0));
+    }
+
+    /**
+     * Parse the central directory from {@code tail}, the last bytes of an archive that
+     * start {@code tailOffset} bytes into it, such as what is left over after streaming
+     * the entries. Offsets in the returned entries are relative to the whole archive.
+     */
+    public static List<Entry> readCentralDirectory(byte[] tail, long tailOffset) throws IOException {
+        return readCentralDirectory(ByteBuffer.wrap(tail).order(ByteOrder.LITTLE_ENDIAN), tailOffset);
+    }
+
+    private static List<Entry> readCentralDirectory(ByteBuffer buffer, long bufferOffset) throws IOException {
+        byte[] zip = buffer.array();
+        int eocd = findEndOfCentralDirectory(buffer);
+        int count = Short.toUnsignedInt(buffer.getShort(eocd + 10));
+        long directoryOffset = Integer.toUnsignedLong(buffer.getInt(eocd + 16));
+        if (count == 0xFFFF || directoryOffset == 0xFFFFFFFFL) {
+            throw new ZipException("ZIP64 archives are not supported");
+        }
+        if (directoryOffset < bufferOffset) {
+            throw new ZipException("Central directory starts before the data read");
+        }
+
+        var entries = new ArrayList<Entry>(count);
+        int pos = (int) (directoryOffset - bufferOffset);
+        for (int i = 0; i < count; i++) {
+            if (pos + CENTRAL_HEADER_SIZE > zip.length || buffer.getInt(pos) != CENTRAL_SIGNATURE) {
+                throw new ZipException("Bad central directory entry at " + (pos + bufferOffset));
+            }
+            int nameLength = Short.toUnsignedInt(buffer.getShort(pos + 28));
+            int extraLength = Short.toUnsignedInt(buffer.getShort(pos + 30));
+            int commentLength = Short.toUnsignedInt(buffer.getShort(pos + 32));
+            int host = Short.toUnsignedInt(buffer.getShort(pos + 4)) >>> 8;
+            // Unix keeps st_mode in the high 16 bits of the external attributes
+            int mode = host == HOST_UNIX ? (buffer.getInt(pos + 38) >>> 16) & 0777 : 0;
+            entries.add(new Entry(
+                    new String(zip, pos + CENTRAL_HEADER_SIZE, nameLength, StandardCharsets.UTF_8),
+                    Short.toUnsignedInt(buffer.getShort(pos + 10)),
+                    Integer.toUnsignedLong(buffer.getInt(pos + 16)),
+                    Integer.toUnsignedLong(buffer.getInt(pos + 20)),
+                    Integer.toUnsignedLong(buffer.getInt(pos + 24)),
+                    Integer.toUnsignedLong(buffer.getInt(pos + 42)),
+                    mode));
+            pos += CENTRAL_HEADER_SIZE + nameLength + extraLength + commentLength;
+        }
+        return List.copyOf(entries);
+    }
+
+    private static int findEndOfCentralDirectory(ByteBuffer buffer) throws ZipException {
+        // The record is last, followed only by a comment of at most 64 KiB
+        int last = buffer.limit() - EOCD_SIZE;
+        for (int pos = last; pos >= Math.max(0, last - 0xFFFF); pos--) {
+            if (buffer.getInt(pos) == EOCD_SIGNATURE) return pos;
+        }
+        throw new ZipException("Not a ZIP archive: no end of central directory record");
+    }
+
+    public List<Entry> entries() {
+        return entries;
+    }
+
+    /**
+     * Open the uncompressed data of {@code entry}. Its size and CRC are checked once the
+     * stream has been read to the end.
+     */
+    public InputStream open(Entry entry) throws IOException {
+        int pos = (int) entry.offset();
+        if (pos + LOCAL_HEADER_SIZE > bytes.limit() || bytes.getInt(pos) != LOCAL_SIGNATURE) {
+            throw new ZipException("Bad local header for " + entry.name());
+        }
+        // The local name and extra field lengths may differ from the central directory's
+        int dataStart = pos + LOCAL_HEADER_SIZE
+                + Short.toUnsignedInt(bytes.getShort(pos + 26))
+                + Short.toUnsignedInt(bytes.getShort(pos + 28));
+        if (dataStart + entry.compressedSize() > bytes.limit()) {
+            throw new ZipException("Truncated data for " + entry.name());
+        }
+        var raw = new ByteArrayInputStream(bytes.array(), dataStart, (int) entry.compressedSize());
+        InputStream data = switch (entry.method()) {
+            case 0 -> raw;
+            case 8 -> new InflaterInputStream(raw, new Inflater(true)) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        inf.end();
+                    }
+                }
+            };
+            default -> throw new ZipException("Unsupported compression method " + entry.method() + " for " + entry.name());
+        };
+        return new CheckedEntryStream(data, entry);
+    }
+
+    /**
+     * Verifies the entry's size and CRC-32 when its end is reached.
+     */
+    private static final class CheckedEntryStream extends FilterInputStream {
+
+        private final Entry entry;
+        private final CRC32 crc = new CRC32();
+        private long count;
+
+        CheckedEntryStream(InputStream in, Entry entry) {
+            super(in);
+            this.entry = entry;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = in.read();
+            if (b < 0) {
+                check();
+            } else {
+                crc.update(b);
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = in.read(b, off, len);
+            if (n < 0) {
+                check();
+            } else {
+                crc.update(b, off, n);
+                count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            // Skipped bytes still count towards the CRC
+            return Math.max(0, read(new byte[(int) Math.min(n, 8192)]));
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        private void check() throws ZipException {
+            if (count != entry.size() || crc.getValue() != entry.crc()) {
+                throw new ZipException("Corrupt entry " + entry.name());
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package dev.danvega.initializr.api;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClientStatsTest {
+
+    private final ClientStats stats = new ClientStats();
+
+    /** Record {@code phase} of a request labelled {@code label} as taking about {@code millis}. */
+    private void record(String label, String phase, long millis) {
+        stats.begin(label).record(phase, System.nanoTime() - Duration.ofMillis(millis).toNanos());
+    }
+
+    // --- percentile ---
+
+    @Test
+    void percentile_needsMinSamples() {
+        record("metadata", "ttfb", 10);
+
+        assertThat(stats.percentile("metadata", "ttfb", 50, 2)).isNull();
+        assertThat(stats.percentile("metadata", "body", 50, 1)).isNull();
+        assertThat(stats.percentile("metadata", "ttfb", 50, 1)).isGreaterThanOrEqualTo(Duration.ofMillis(10));
+    }
+
+    @Test
+    void percentile_coversOnlyTheMostRecentWindow() {
+        for (int i = 0; i < ClientStats.SAMPLE_WINDOW; i++) record("metadata", "ttfb", 1_000);
+        for (int i = 0; i < ClientStats.SAMPLE_WINDOW; i++) record("metadata", "ttfb", 1);
+
+        assertThat(stats.percentile("metadata", "ttfb", 100, 1)).isLessThan(Duration.ofMillis(1_000));
+    }
+
+    @Test
+    void percentile_keepsLabelsApart() {
+        record("metadata", "ttfb", 1_000);
+        record("preview", "ttfb", 1);
+
+        assertThat(stats.percentile("preview", "ttfb", 100, 1)).isLessThan(Duration.ofMillis(1_000));
+    }
+
+    // --- format ---
+
+    @Test
+    void format_listsOnlyRecentRequests() {
+        for (int i = 0; i < ClientStats.RECENT_TIMINGS + 5; i++) record("metadata", "ttfb", 1);
+
+        var lines = stats.format().lines().filter(line -> line.trim().startsWith("metadata")).count();
+
+        assertThat(lines).isEqualTo(ClientStats.RECENT_TIMINGS);
+        assertThat(stats.format()).contains("last " + ClientStats.RECENT_TIMINGS + " of " + (ClientStats.RECENT_TIMINGS + 5));
+    }
+}
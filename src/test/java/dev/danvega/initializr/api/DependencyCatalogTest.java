@@ -0,0 +1,42 @@
+package dev.danvega.initializr.api;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DependencyCatalogTest {
+
+    private static InitializrMetadata.Dependency dep(String id) {
+        return new InitializrMetadata.Dependency(id, id, null, null);
+    }
+
+    private final DependencyCatalog catalog = DependencyCatalog.of(List.of(
+            new InitializrMetadata.DependencyCategory("Web", List.of(dep("web"), dep("webflux"))),
+            new InitializrMetadata.DependencyCategory("Empty", List.of()),
+            new InitializrMetadata.DependencyCategory("Data", List.of(dep("jpa")))
+    ));
+
+    @Test
+    void of_assignsOrdinalsInCatalogOrder() {
+        assertThat(catalog.size()).isEqualTo(3);
+        assertThat(catalog.dependency(0).id()).isEqualTo("web");
+        assertThat(catalog.dependency(2).id()).isEqualTo("jpa");
+    }
+
+    @Test
+    void categoryRanges_areContiguousAndAllowEmptyCategories() {
+        assertThat(catalog.categoryCount()).isEqualTo(3);
+        assertThat(catalog.categoryStart(0)).isEqualTo(0);
+        assertThat(catalog.categoryEnd(0)).isEqualTo(2);
+        assertThat(catalog.categoryStart(1)).isEqualTo(catalog.categoryEnd(1));
+        assertThat(catalog.categoryName(catalog.categoryOf(2))).isEqualTo("Data");
+    }
+
+    @Test
+    void ordinalOf_returnsMinusOneForUnknownId() {
+        assertThat(catalog.ordinalOf("webflux")).isEqualTo(1);
+        assertThat(catalog.ordinalOf("nope")).isEqualTo(-1);
+    }
+}
@@ -0,0 +1,393 @@
+package dev.danvega.initializr.api;
+
+import com.sun.net.httpserver.HttpServer;
+import dev.danvega.initializr.model.ProjectConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.net.http.HttpTimeoutException;
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InitializrClientTest {
+
+    private static final String METADATA = """
+            {"bootVersion": {"type": "single-select", "default": "3.5.0",
+              "values": [{"id": "3.5.0", "name": "3.5.0"}]}}
+            """;
+
+    private HttpServer server;
+    private InitializrClient client;
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+
+    // Fault injection for the stand-in server; "first" counts GET requests only
+    private final AtomicInteger gets = new AtomicInteger();
+    private volatile int failFirst;
+    private volatile int failStatus = 503;
+    private volatile long delayFirstMillis;
+    private volatile long stallBodyMillis;
+    private volatile long delayHeadMillis;
+    private volatile String acceptEncoding;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", exchange -> {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            byte[] bytes = METADATA.getBytes(StandardCharsets.UTF_8);
+            if ("HEAD".equals(exchange.getRequestMethod())) {
+                if (delayHeadMillis > 0) sleep(delayHeadMillis);
+                exchange.sendResponseHeaders(200, -1);
+                exchange.close();
+                return;
+            }
+            int n = gets.incrementAndGet();
+            if (n == 1 && delayFirstMillis > 0) sleep(delayFirstMillis);
+            if (n <= failFirst) {
+                exchange.sendResponseHeaders(failStatus, -1);
+            } else if (stallBodyMillis > 0) {
+                exchange.sendResponseHeaders(200, bytes.length);
+                exchange.getResponseBody().write(bytes, 0, 10);
+                exchange.getResponseBody().flush();
+                sleep(stallBodyMillis);
+            } else {
+                exchange.sendResponseHeaders(200, bytes.length);
+                exchange.getResponseBody().write(bytes);
+            }
+            exchange.close();
+        });
+        server.start();
+        client = new InitializrClient(baseUrl());
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    private String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private InitializrClient clientWith(Duration readTimeout, int maxAttempts, Duration hedgeDelay) {
+        return new InitializrClient(baseUrl(), new RequestPolicy(Duration.ofSeconds(2), readTimeout,
+                maxAttempts, Duration.ofMillis(1), Duration.ofMillis(5), hedgeDelay));
+    }
+
+    // --- prewarm ---
+
+    @Test
+    void prewarm_connectionIsReusedByFirstRequest() throws Exception {
+        client.prewarm();
+
+        client.fetchMetadata();
+
+        assertThat(clientPorts).hasSize(1);
+    }
+
+    @Test
+    void prewarm_recordsDnsAndConnectPhases() throws Exception {
+        client.prewarm();
+        client.fetchMetadata();
+
+        var prewarm = client.stats().format().lines()
+                .filter(line -> line.trim().startsWith("prewarm"))
+                .findFirst();
+        assertThat(prewarm).isPresent();
+        assertThat(prewarm.get()).contains("dns").contains("connect+tls");
+    }
+
+    @Test
+    void prewarm_recordsTimeRequestsWaitForIt() throws Exception {
+        delayHeadMillis = 200;
+        client.prewarm();
+        client.fetchMetadata();
+
+        assertThat(client.stats().percentile("metadata", "warmup-wait", 50, 1)).isNotNull();
+    }
+
+    @Test
+    void prewarm_stopsHoldingRequestsBackAfterTheConnectTimeout() throws Exception {
+        delayHeadMillis = 3000;
+        var client = new InitializrClient(baseUrl(), new RequestPolicy(Duration.ofMillis(200), Duration.ofSeconds(5),
+                1, Duration.ofMillis(1), Duration.ofMillis(5), null));
+        client.prewarm();
+        long start = System.nanoTime();
+
+        client.fetchMetadata();
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(1500));
+    }
+
+    @Test
+    void prewarm_failureSurfacesAsRequestError() {
+        var unreachable = new InitializrClient("http://localhost:1");
+        unreachable.prewarm();
+
+        assertThatThrownBy(unreachable::fetchMetadata).isInstanceOf(IOException.class);
+    }
+
+    // --- stats ---
+
+    @Test
+    void fetchMetadata_recordsTtfbAndBody() throws Exception {
+        client.fetchMetadata();
+
+        assertThat(client.stats().format()).contains("metadata").contains("ttfb").contains("body");
+    }
+
+    // --- preview cache ---
+
+    @Test
+    void previewBuildFile_servesEquivalentConfigFromCache() throws Exception {
+        var config = new ProjectConfig();
+        config.toggleDependency("web");
+        config.toggleDependency("jpa");
+        var reordered = new ProjectConfig();
+        reordered.toggleDependency("jpa");
+        reordered.toggleDependency("web");
+
+        client.previewBuildFile(config, "maven-project");
+        client.previewBuildFile(reordered, "maven-project");
+
+        assertThat(gets.get()).isEqualTo(1);
+        assertThat(client.stats().format()).contains("preview.cache-hits").contains("preview.cache-misses");
+    }
+
+    @Test
+    void previewBuildFile_cachesPerProjectType() throws Exception {
+        var config = new ProjectConfig();
+
+        client.previewBuildFile(config, "maven-project");
+        client.previewBuildFile(config, "gradle-project");
+
+        assertThat(gets.get()).isEqualTo(2);
+    }
+
+    @Test
+    void heapBytes_countsTwoBytesPerChar() {
+        assertThat(InitializrClient.heapBytes("<name>demo</name>")).isEqualTo(34);
+        assertThat(InitializrClient.heapBytes("<name>d\u00e9mo \u30c7\u30e2</name>")).isEqualTo(40);
+    }
+
+    // --- resilience ---
+
+    @Test
+    void fetchMetadata_retriesServerErrorsThenSucceeds() throws Exception {
+        failFirst = 2;
+
+        var metadata = clientWith(Duration.ofSeconds(5), 3, null).fetchMetadata();
+
+        assertThat(metadata.bootVersion().defaultOrFirst()).isEqualTo("3.5.0");
+        assertThat(gets.get()).isEqualTo(3);
+    }
+
+    @Test
+    void fetchMetadata_timesFirstByteOfTheLastAttemptOnly() throws Exception {
+        failFirst = 1;
+        delayFirstMillis = 300;
+        var client = clientWith(Duration.ofSeconds(5), 3, null);
+
+        client.fetchMetadata();
+
+        assertThat(client.stats().percentile("metadata", "ttfb", 50, 1)).isLessThan(Duration.ofMillis(300));
+    }
+
+    @Test
+    void fetchMetadata_givesUpAfterMaxAttempts() {
+        failFirst = Integer.MAX_VALUE;
+        var client = clientWith(Duration.ofSeconds(5), 3, null);
+
+        assertThatThrownBy(client::fetchMetadata).isInstanceOf(IOException.class).hasMessageContaining("503");
+        assertThat(gets.get()).isEqualTo(3);
+        assertThat(client.stats().count("metadata.retries")).isEqualTo(2);
+    }
+
+    @Test
+    void fetchMetadata_doesNotRetryClientErrors() {
+        failFirst = Integer.MAX_VALUE;
+        failStatus = 400;
+
+        assertThatThrownBy(clientWith(Duration.ofSeconds(5), 3, null)::fetchMetadata).isInstanceOf(IOException.class);
+        assertThat(gets.get()).isEqualTo(1);
+    }
+
+    @Test
+    void fetchMetadata_timesOutWaitingForHeaders() {
+        delayFirstMillis = 2000;
+        long start = System.nanoTime();
+
+        assertThatThrownBy(clientWith(Duration.ofMillis(200), 1, null)::fetchMetadata)
+                .isInstanceOf(HttpTimeoutException.class);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(1500));
+    }
+
+    @Test
+    void fetchMetadata_retriesAfterTimeout() throws Exception {
+        delayFirstMillis = 2000;
+
+        var metadata = clientWith(Duration.ofMillis(200), 2, null).fetchMetadata();
+
+        assertThat(metadata.bootVersion().defaultOrFirst()).isEqualTo("3.5.0");
+    }
+
+    @Test
+    void fetchMetadata_timesOutWhenBodyStalls() {
+        stallBodyMillis = 2000;
+        long start = System.nanoTime();
+
+        assertThatThrownBy(clientWith(Duration.ofMillis(200), 1, null)::fetchMetadata)
+                .isInstanceOf(IOException.class);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(1500));
+    }
+
+    @Test
+    void fetchMetadata_hedgesSlowRequest() throws Exception {
+        delayFirstMillis = 2000;
+        var client = clientWith(Duration.ofSeconds(5), 1, Duration.ofMillis(100));
+        long start = System.nanoTime();
+
+        var metadata = client.fetchMetadata();
+
+        assertThat(metadata.bootVersion().defaultOrFirst()).isEqualTo("3.5.0");
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(1500));
+        assertThat(gets.get()).isEqualTo(2);
+        assertThat(client.stats().count("metadata.hedged")).isEqualTo(1);
+        assertThat(client.stats().count("metadata.hedge-wins")).isEqualTo(1);
+    }
+
+    @Test
+    void fetchMetadata_doesNotHedgeFastRequest() throws Exception {
+        var client = clientWith(Duration.ofSeconds(5), 1, Duration.ofSeconds(2));
+
+        client.fetchMetadata();
+
+        assertThat(gets.get()).isEqualTo(1);
+        assertThat(client.stats().count("metadata.hedged")).isEqualTo(0);
+    }
+
+    @Test
+    void backoff_staysWithinExponentialCap() {
+        var policy = new RequestPolicy(Duration.ofSeconds(1), Duration.ofSeconds(1), 5,
+                Duration.ofMillis(100), Duration.ofMillis(400), null);
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(policy.backoff(1)).isLessThanOrEqualTo(Duration.ofMillis(100));
+            assertThat(policy.backoff(5)).isLessThanOrEqualTo(Duration.ofMillis(400));
+        }
+    }
+
+    // --- content encoding ---
+
+    private void serveEncoded(String path, String content, String encoding) {
+        server.createContext(path, exchange -> {
+            acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+            var out = new ByteArrayOutputStream();
+            try (var encoder = switch (encoding) {
+                case "gzip" -> new GZIPOutputStream(out);
+                case "deflate" -> new DeflaterOutputStream(out);
+                default -> out;
+            }) {
+                encoder.write(content.getBytes(StandardCharsets.UTF_8));
+            }
+            if (!encoding.equals("identity")) exchange.getResponseHeaders().set("Content-Encoding", encoding);
+            exchange.sendResponseHeaders(200, out.size());
+            exchange.getResponseBody().write(out.toByteArray());
+            exchange.close();
+        });
+    }
+
+    @Test
+    void previewBuildFile_decodesGzipAndCountsBytes() throws Exception {
+        String pom = "<dependency><artifactId>spring-boot-starter</artifactId></dependency>\n".repeat(200);
+        serveEncoded("/pom.xml", pom, "gzip");
+
+        String preview = client.previewBuildFile(new ProjectConfig(), "maven-project");
+
+        assertThat(preview).isEqualTo(pom);
+        assertThat(acceptEncoding).contains("gzip").contains("deflate");
+        assertThat(client.stats().count("preview.bytes-decoded")).isEqualTo(pom.length());
+        assertThat(client.stats().count("preview.bytes-received")).isLessThan(pom.length() / 10);
+    }
+
+    @Test
+    void fetchMetadata_decodesDeflate() throws Exception {
+        serveEncoded("/metadata", METADATA, "deflate");
+        var deflated = new InitializrClient(baseUrl() + "/metadata");
+
+        var metadata = deflated.fetchMetadata();
+
+        assertThat(metadata.bootVersion().defaultValue()).isEqualTo("3.5.0");
+    }
+
+    @Test
+    void fetchMetadata_countsUnencodedBytesOnce() throws Exception {
+        client.fetchMetadata();
+
+        long length = METADATA.getBytes(StandardCharsets.UTF_8).length;
+        assertThat(client.stats().count("metadata.bytes-received")).isEqualTo(length);
+        assertThat(client.stats().count("metadata.bytes-decoded")).isEqualTo(length);
+    }
+
+    // --- generateProject ---
+
+    @Test
+    void generateProject_streamsZipIntoDestinationWithProgress(@TempDir Path tempDir) throws Exception {
+        var out = new ByteArrayOutputStream();
+        try (var zos = new ZipOutputStream(out)) {
+            for (int i = 0; i < 200; i++) {
+                zos.putNextEntry(new ZipEntry("demo/src/File" + i + ".java"));
+                zos.write(("class File" + i + " {}\n").repeat(100).getBytes(StandardCharsets.UTF_8));
+                zos.closeEntry();
+            }
+        }
+        byte[] zip = out.toByteArray();
+        server.createContext("/starter.zip", exchange -> {
+            exchange.sendResponseHeaders(200, zip.length);
+            exchange.getResponseBody().write(zip);
+            exchange.close();
+        });
+        var progress = new ArrayList<Long>();
+
+        client.generateProject(new ProjectConfig(), tempDir, (read, total) -> {
+            assertThat(total).isEqualTo(zip.length);
+            progress.add(read);
+        });
+
+        assertThat(Files.readString(tempDir.resolve("demo/src/File199.java"))).startsWith("class File199 {}");
+        try (var files = Files.list(tempDir)) {
+            assertThat(files.map(f -> f.getFileName().toString()).toList()).containsExactly("demo");
+        }
+        assertThat(progress.size()).isGreaterThan(1);
+        assertThat(progress).isSorted();
+        assertThat(progress.getLast()).isEqualTo((long) zip.length);
+    }
+}
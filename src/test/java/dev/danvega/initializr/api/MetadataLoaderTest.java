@@ -0,0 +1,212 @@
+package dev.danvega.initializr.api;
+
+import com.sun.net.httpserver.HttpServer;
+import dev.danvega.initializr.util.MetadataCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MetadataLoaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    private HttpServer server;
+    private MetadataCache cache;
+    private InitializrClient client;
+
+    // Stand-in for start.spring.io: serves one metadata version and honors If-None-Match
+    private volatile String etag = "\"v1\"";
+    private volatile String body = metadataJson("3.5.0");
+    private final AtomicInteger ok = new AtomicInteger();
+    private final AtomicInteger notModified = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                notModified.incrementAndGet();
+                exchange.getResponseHeaders().add("ETag", etag);
+                exchange.sendResponseHeaders(304, -1);
+            } else {
+                ok.incrementAndGet();
+                byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("ETag", etag);
+                exchange.sendResponseHeaders(200, bytes.length);
+                exchange.getResponseBody().write(bytes);
+            }
+            exchange.close();
+        });
+        server.start();
+        client = new InitializrClient("http://localhost:" + server.getAddress().getPort());
+        cache = new MetadataCache(tempDir);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    private static String metadataJson(String bootVersion) {
+        return """
+                {"bootVersion": {"type": "single-select", "default": "%s",
+                  "values": [{"id": "%s", "name": "%s"}]}}
+                """.formatted(bootVersion, bootVersion, bootVersion);
+    }
+
+    private MetadataLoader loader(Duration maxStaleness) {
+        return new MetadataLoader(client, cache, maxStaleness, null);
+    }
+
+    private MetadataLoader loaderWithSnapshot() {
+        var snapshot = new MetadataSnapshot(metadataJson("3.4.0"), LocalDate.of(2026, 1, 15));
+        return new MetadataLoader(client, cache, Duration.ofHours(1), snapshot);
+    }
+
+    private void saveToCache(long fetchedAt) throws IOException {
+        cache.save(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), etag, null, fetchedAt);
+    }
+
+    // --- load ---
+
+    @Test
+    void load_fetchesAndCachesWhenNoCache() throws Exception {
+        var result = loader(Duration.ofHours(1)).load();
+
+        assertThat(result.source()).isEqualTo(MetadataLoader.Source.NETWORK);
+        assertThat(result.metadata().bootVersion().defaultOrFirst()).isEqualTo("3.5.0");
+        assertThat(ok.get()).isEqualTo(1);
+        assertThat(cache.load()).isPresent();
+        assertThat(cache.load().get().etag()).isEqualTo("\"v1\"");
+    }
+
+    @Test
+    void load_usesFreshCacheWithoutNetwork() throws Exception {
+        loader(Duration.ofHours(1)).load();
+
+        var result = loader(Duration.ofHours(1)).load();
+
+        assertThat(result.source()).isEqualTo(MetadataLoader.Source.CACHE);
+        assertThat(ok.get()).isEqualTo(1);
+        assertThat(notModified.get()).isEqualTo(0);
+    }
+
+    @Test
+    void load_revalidatesWhenCacheOlderThanMaxStaleness() throws Exception {
+        saveToCache(System.currentTimeMillis() - Duration.ofDays(2).toMillis());
+
+        var result = loader(Duration.ofHours(24)).load();
+
+        assertThat(result.source()).isEqualTo(MetadataLoader.Source.CACHE);
+        assertThat(ok.get()).isEqualTo(0);
+        assertThat(notModified.get()).isEqualTo(1);
+        assertThat(cache.load().get().isFresh(Duration.ofHours(24))).isTrue();
+    }
+
+    @Test
+    void load_fallsBackToStaleCacheWhenServerUnreachable() throws Exception {
+        saveToCache(0);
+        server.stop(0);
+
+        var result = loader(Duration.ofHours(24)).load();
+
+        assertThat(result.source()).isEqualTo(MetadataLoader.Source.CACHE);
+        assertThat(result.metadata().bootVersion().defaultOrFirst()).isEqualTo("3.5.0");
+    }
+
+    @Test
+    void load_usesSnapshotWhenNoCache() throws Exception {
+        var result = loaderWithSnapshot().load();
+
+        assertThat(result.source()).isEqualTo(MetadataLoader.Source.SNAPSHOT);
+        assertThat(result.metadata().bootVersion().defaultOrFirst()).isEqualTo("3.4.0");
+        assertThat(result.fetchedAt()).isEqualTo(LocalDate.of(2026, 1, 15).atStartOfDay(ZoneOffset.UTC).toInstant());
+        assertThat(ok.get()).isEqualTo(0);
+    }
+
+    @Test
+    void load_fetchesWhenSnapshotIsUnreadable() throws Exception {
+        var snapshot = new MetadataSnapshot("<html>502 Bad Gateway</html>", null);
+
+        var result = new MetadataLoader(client, cache, Duration.ofHours(1), snapshot).load();
+
+        assertThat(result.source()).isEqualTo(MetadataLoader.Source.NETWORK);
+        assertThat(result.metadata().bootVersion().defaultOrFirst()).isEqualTo("3.5.0");
+    }
+
+    @Test
+    void load_prefersStaleCacheOverSnapshot() throws Exception {
+        saveToCache(0);
+        server.stop(0);
+
+        var result = loaderWithSnapshot().load();
+
+        assertThat(result.source()).isEqualTo(MetadataLoader.Source.CACHE);
+        assertThat(result.metadata().bootVersion().defaultOrFirst()).isEqualTo("3.5.0");
+    }
+
+    // --- revalidate ---
+
+    @Test
+    void revalidate_replacesSnapshotWithNetworkMetadata() throws Exception {
+        var loader = loaderWithSnapshot();
+        loader.load();
+
+        var fresh = loader.revalidate();
+
+        assertThat(fresh).isPresent();
+        assertThat(fresh.get().source()).isEqualTo(MetadataLoader.Source.NETWORK);
+        assertThat(fresh.get().metadata().bootVersion().defaultOrFirst()).isEqualTo("3.5.0");
+        assertThat(cache.load()).isPresent();
+    }
+
+    @Test
+    void revalidate_returnsEmptyWhenNotModified() throws Exception {
+        var loader = loader(Duration.ofHours(1));
+        loader.load();
+
+        assertThat(loader.revalidate()).isEmpty();
+        assertThat(ok.get()).isEqualTo(1);
+        assertThat(notModified.get()).isEqualTo(1);
+    }
+
+    @Test
+    void revalidate_treatsIdenticalBodyAsUnchanged() throws Exception {
+        var loader = loader(Duration.ofHours(1));
+        loader.load();
+        etag = "\"v1-rebuilt\"";
+
+        assertThat(loader.revalidate()).isEmpty();
+        assertThat(ok.get()).isEqualTo(2);
+        assertThat(cache.load().get().etag()).isEqualTo("\"v1-rebuilt\"");
+    }
+
+    @Test
+    void revalidate_returnsFreshMetadataWhenChanged() throws Exception {
+        var loader = loader(Duration.ofHours(1));
+        loader.load();
+        etag = "\"v2\"";
+        body = metadataJson("3.5.1");
+
+        var fresh = loader.revalidate();
+
+        assertThat(fresh).isPresent();
+        assertThat(fresh.get().metadata().bootVersion().defaultOrFirst()).isEqualTo("3.5.1");
+        assertThat(ok.get()).isEqualTo(2);
+        assertThat(cache.load().get().etag()).isEqualTo("\"v2\"");
+    }
+}
@@ -0,0 +1,180 @@
+package dev.danvega.initializr.api;
+
+import com.sun.net.httpserver.HttpServer;
+import dev.danvega.initializr.model.ProjectConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Generate's download-and-extract against the path it replaced, which saved starter.zip
+ * to a file, unzipped that file and deleted it. Both download generated projects of
+ * increasing size from a local stand-in server and print their median times; run with
+ * {@code mvn test -Dgroups=scale}.
+ */
+@Tag("scale")
+class ProjectDownloadScaleTest {
+
+    // Files per project: a starter, a mid-sized service, a large multi-module build
+    private static final List<Integer> PROJECT_FILES = List.of(50, 1_000, 5_000);
+
+    private HttpServer server;
+    private volatile byte[] zip;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/starter.zip", exchange -> {
+            exchange.sendResponseHeaders(200, zip.length);
+            exchange.getResponseBody().write(zip);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    private String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    /**
+     * A project of {@code files} source files of a few KB each, mostly compressible text.
+     */
+    private static byte[] project(int files) throws IOException {
+        var random = new Random(files);
+        var out = new ByteArrayOutputStream();
+        try (var zos = new ZipOutputStream(out)) {
+            for (int i = 0; i < files; i++) {
+                zos.putNextEntry(new ZipEntry("demo/module" + i % 20 + "/src/main/java/demo/File" + i + ".java"));
+                var source = new StringBuilder("package demo;\n\nclass File" + i + " {\n");
+                for (int line = 0, lines = 20 + random.nextInt(200); line < lines; line++) {
+                    source.append("    int field").append(line).append(" = ").append(random.nextInt()).append(";\n");
+                }
+                zos.write(source.append("}\n").toString().getBytes(StandardCharsets.UTF_8));
+                zos.closeEntry();
+            }
+        }
+        return out.toByteArray();
+    }
+
+    private static Duration median(int runs, Runnable action) {
+        action.run();
+        var nanos = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            long start = System.nanoTime();
+            action.run();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return Duration.ofNanos(nanos[runs / 2]);
+    }
+
+    private static void delete(Path dir) {
+        if (!Files.exists(dir)) return;
+        try (var paths = Files.walk(dir)) {
+            for (var path : paths.sorted(Comparator.reverseOrder()).toList()) Files.delete(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // The replaced path: BodyHandlers.ofFile, then ZipInputStream over the saved file
+    private void downloadThenExtract(HttpClient http, Path projectDir) throws Exception {
+        var zipPath = tempDir.resolve("demo.zip");
+        var request = HttpRequest.newBuilder(URI.create(baseUrl() + "/starter.zip")).GET().build();
+        http.send(request, HttpResponse.BodyHandlers.ofFile(zipPath));
+        Files.createDirectories(projectDir);
+        try (var zis = new ZipInputStream(Files.newInputStream(zipPath))) {
+            ZipEntry entry;
+            while ((entry = zis.getNextEntry()) != null) {
+                Path entryPath = projectDir.resolve(entry.getName()).normalize();
+                if (entry.isDirectory()) {
+                    Files.createDirectories(entryPath);
+                } else {
+                    Files.createDirectories(entryPath.getParent());
+                    Files.copy(zis, entryPath, StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+        }
+        Files.delete(zipPath);
+    }
+
+    private static long fileCount(Path dir) throws IOException {
+        try (var paths = Files.walk(dir)) {
+            return paths.filter(Files::isRegularFile).count();
+        }
+    }
+
+    @Test
+    void generateProject_againstDownloadingToAFileFirst() throws Exception {
+        var http = HttpClient.newHttpClient();
+        var client = new InitializrClient(baseUrl());
+        var config = new ProjectConfig();
+        Path fileDir = tempDir.resolve("file");
+        Path streamDir = tempDir.resolve("stream");
+
+        System.out.printf("%-8s %10s %14s %14s%n", "files", "zip KB", "file+unzip ms", "streamed ms");
+        for (int files : PROJECT_FILES) {
+            zip = project(files);
+            var viaFile = median(5, () -> {
+                delete(fileDir);
+                try {
+                    downloadThenExtract(http, fileDir);
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            var streamed = median(5, () -> {
+                delete(streamDir);
+                try {
+                    client.generateProject(config, streamDir, (read, total) -> {});
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            System.out.printf("%-8d %10d %14.1f %14.1f%n", files, zip.length / 1024,
+                    viaFile.toNanos() / 1e6, streamed.toNanos() / 1e6);
+
+            assertThat(fileCount(streamDir)).isEqualTo(files);
+            assertThat(fileCount(fileDir)).isEqualTo(files);
+            // The two do the same writes and differ by less than the noise of a busy disk;
+            // only a regression of a multiple fails
+            assertThat(streamed).as("streamed extraction of %d files", files)
+                    .isLessThanOrEqualTo(viaFile.multipliedBy(2));
+        }
+    }
+}
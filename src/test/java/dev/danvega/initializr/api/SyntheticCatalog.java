@@ -0,0 +1,123 @@
+package dev.danvega.initializr.api;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates Initializr metadata with catalogs of any size, shaped like a large federated
+ * corporate catalog rather than start.spring.io's ~200 entries: a few big categories and
+ * a long tail of small ones, names that share team and platform prefixes, mostly short
+ * names with the occasional very long one, and descriptions of up to a few hundred
+ * characters. The same size and seed always give the same catalog.
+ */
+public final class SyntheticCatalog {
+
+    // Vocabulary names and descriptions are drawn from; queries in tests can rely on it
+    public static final List<String> TECHNOLOGIES = List.of(
+            "web", "reactive", "data", "jpa", "jdbc", "security", "oauth2", "client", "resource", "server",
+            "kafka", "rabbit", "stream", "cloud", "config", "gateway", "eureka", "actuator", "devtools",
+            "lombok", "validation", "mail", "cache", "redis", "mongodb", "cassandra", "elasticsearch",
+            "neo4j", "r2dbc", "flyway", "liquibase", "thymeleaf", "mustache", "graphql", "websocket",
+            "batch", "integration", "quartz", "session", "vault", "consul", "zipkin", "prometheus",
+            "docker", "compose", "testcontainers", "native", "observability", "micrometer", "azure", "aws",
+            "gcp", "openai", "ollama", "vector", "postgres", "mysql", "oracle", "h2", "sqlserver");
+
+    // Shared prefixes, as when every team publishes starters under its own platform name
+    public static final List<String> PREFIXES = List.of(
+            "Spring", "Spring Cloud", "Spring Data", "Acme Platform", "Acme Payments", "Acme Identity",
+            "Internal", "Legacy", "Team Orion", "Team Vega");
+
+    private static final List<String> FILLER = List.of(
+            "support", "for", "with", "and", "the", "auto-configuration", "starter", "integration",
+            "using", "production", "ready", "applications", "services", "clients", "on", "of");
+
+    private SyntheticCatalog() {}
+
+    /**
+     * Metadata with the usual project options and {@code dependencies} generated dependencies.
+     */
+    public static InitializrMetadata.Metadata metadata(int dependencies, long seed) {
+        return new InitializrMetadata.Metadata(
+                select("maven-project", "maven-project", "gradle-project"),
+                select("jar", "jar", "war"),
+                select("25", "25", "21", "17"),
+                select("java", "java", "kotlin", "groovy"),
+                select("4.0.0", "4.0.0", "3.5.6"),
+                text("com.example"), text("demo"), text("0.0.1-SNAPSHOT"), text("demo"),
+                text("Demo project"), text("com.example.demo"),
+                select("properties", "properties", "yaml"),
+                new InitializrMetadata.DependencyGroup("hierarchical-multi-select", categories(dependencies, seed)));
+    }
+
+    /**
+     * Exactly {@code dependencies} dependencies with unique ids, spread over about one
+     * category per 50 of them.
+     */
+    public static List<InitializrMetadata.DependencyCategory> categories(int dependencies, long seed) {
+        var random = new Random(seed);
+        int categoryCount = Math.max(1, dependencies / 50);
+        // Zipf-like weights: category k gets a share proportional to 1 / (k + 1)
+        double totalWeight = 0;
+        for (int k = 0; k < categoryCount; k++) totalWeight += 1.0 / (k + 1);
+
+        var categories = new ArrayList<InitializrMetadata.DependencyCategory>(categoryCount);
+        int made = 0;
+        for (int k = 0; k < categoryCount; k++) {
+            int size = k == categoryCount - 1
+                    ? dependencies - made
+                    : Math.min(dependencies - made, (int) Math.round(dependencies / totalWeight / (k + 1)));
+            var values = new ArrayList<InitializrMetadata.Dependency>(size);
+            for (int i = 0; i < size; i++, made++) {
+                values.add(dependency(random, made));
+            }
+            String name = pick(random, PREFIXES) + " " + capitalize(pick(random, TECHNOLOGIES)) + " " + (k + 1);
+            categories.add(new InitializrMetadata.DependencyCategory(name, values));
+        }
+        return categories;
+    }
+
+    private static InitializrMetadata.Dependency dependency(Random random, int n) {
+        // Mostly one or two words after the prefix, now and then up to eight
+        int words = random.nextInt(10) < 8 ? 1 + random.nextInt(2) : 3 + random.nextInt(6);
+        var name = new StringBuilder(pick(random, PREFIXES));
+        var id = new StringBuilder(name.toString().toLowerCase().replace(' ', '-'));
+        for (int w = 0; w < words; w++) {
+            String word = pick(random, TECHNOLOGIES);
+            name.append(' ').append(capitalize(word));
+            id.append('-').append(word);
+        }
+        // Ids must stay unique however the words fall
+        id.append('-').append(n);
+
+        // Mostly a sentence, sometimes a paragraph of up to ~400 characters
+        int length = random.nextInt(10) < 7 ? 40 + random.nextInt(60) : 150 + random.nextInt(250);
+        var description = new StringBuilder(capitalize(pick(random, FILLER)));
+        while (description.length() < length) {
+            var pool = random.nextInt(3) == 0 ? TECHNOLOGIES : FILLER;
+            description.append(' ').append(pick(random, pool));
+        }
+        description.append('.');
+
+        return new InitializrMetadata.Dependency(id.toString(), name.toString(), description.toString(),
+                random.nextInt(4) == 0 ? "[3.5.0,4.1.0-M1)" : null);
+    }
+
+    private static String pick(Random random, List<String> words) {
+        return words.get(random.nextInt(words.size()));
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+
+    private static InitializrMetadata.SelectField select(String defaultValue, String... ids) {
+        var options = new ArrayList<InitializrMetadata.SelectOption>();
+        for (String id : ids) options.add(new InitializrMetadata.SelectOption(id, id));
+        return new InitializrMetadata.SelectField("single-select", defaultValue, options);
+    }
+
+    private static InitializrMetadata.TextField text(String defaultValue) {
+        return new InitializrMetadata.TextField("text", defaultValue);
+    }
+}
@@ -0,0 +1,29 @@
+package dev.danvega.initializr.api;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SyntheticCatalogTest {
+
+    private static final long SEED = 42;
+
+    @Test
+    void categories_hasRequestedSizeAndUniqueIds() {
+        var categories = SyntheticCatalog.categories(5_000, SEED);
+        var ids = new HashSet<String>();
+        categories.forEach(category -> category.values().forEach(dep -> ids.add(dep.id())));
+
+        assertThat(ids).hasSize(5_000);
+        assertThat(categories.getFirst().values().size()).isGreaterThan(categories.getLast().values().size());
+    }
+
+    @Test
+    void categories_isDeterministic() {
+        assertThat(SyntheticCatalog.categories(1_000, SEED)).isEqualTo(SyntheticCatalog.categories(1_000, SEED));
+        assertThat(SyntheticCatalog.metadata(1_000, SEED).dependencies().values())
+                .containsExactly(SyntheticCatalog.categories(1_000, SEED).toArray());
+    }
+}
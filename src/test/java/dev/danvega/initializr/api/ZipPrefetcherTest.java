@@ -0,0 +1,202 @@
+package dev.danvega.initializr.api;
+
+import com.sun.net.httpserver.HttpServer;
+import dev.danvega.initializr.model.ProjectConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ZipPrefetcherTest {
+
+    private static final Duration IDLE = Duration.ofMillis(100);
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private HttpServer server;
+    private InitializrClient client;
+    private ProjectConfig config;
+
+    // Stand-in for starter.zip: a body of zipSize bytes, optionally delayed before the headers
+    private final AtomicInteger downloads = new AtomicInteger();
+    private volatile int zipSize = 1024;
+    private volatile long delayMillis;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/starter.zip", exchange -> {
+            downloads.incrementAndGet();
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(200, zipSize);
+            exchange.getResponseBody().write(new byte[zipSize]);
+            exchange.close();
+        });
+        server.start();
+        client = new InitializrClient("http://localhost:" + server.getAddress().getPort());
+        config = new ProjectConfig();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private ZipPrefetcher prefetcher(long bytesPerSecond) {
+        return new ZipPrefetcher(client, IDLE, bytesPerSecond);
+    }
+
+    // The starting config is never prefetched, so tests change it first
+    private void change(ZipPrefetcher prefetcher) {
+        prefetcher.observe(config);
+        config.setName(config.getName() + "x");
+        prefetcher.observe(config);
+    }
+
+    private static void sleep(Duration duration) throws InterruptedException {
+        Thread.sleep(duration.toMillis());
+    }
+
+    @Test
+    void fetch_usesBytesPrefetchedAfterIdle() throws Exception {
+        try (var prefetcher = prefetcher(Long.MAX_VALUE)) {
+            change(prefetcher);
+            sleep(IDLE.multipliedBy(5));
+
+            byte[] zip = prefetcher.fetch(config);
+
+            assertThat(zip.length).isEqualTo(1024);
+            assertThat(downloads.get()).isEqualTo(1);
+            assertThat(client.stats().count("prefetch.hits")).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void observe_doesNotPrefetchWhileConfigKeepsChanging() throws Exception {
+        try (var prefetcher = prefetcher(Long.MAX_VALUE)) {
+            for (String version : new String[] {"17", "21", "25"}) {
+                config.setJavaVersion(version);
+                prefetcher.observe(config);
+                sleep(IDLE.dividedBy(2));
+            }
+
+            assertThat(downloads.get()).isEqualTo(0);
+            sleep(IDLE.multipliedBy(5));
+            assertThat(downloads.get()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void observe_doesNotPrefetchTheStartingConfig() throws Exception {
+        try (var prefetcher = prefetcher(Long.MAX_VALUE)) {
+            prefetcher.observe(config);
+            sleep(IDLE.multipliedBy(5));
+
+            assertThat(downloads.get()).isEqualTo(0);
+        }
+    }
+
+    @Test
+    void fetch_downloadsAgainOncePrefetchedBytesExpire() throws Exception {
+        try (var prefetcher = new ZipPrefetcher(client, IDLE, Long.MAX_VALUE, Duration.ofMillis(200))) {
+            change(prefetcher);
+            sleep(IDLE.multipliedBy(3));
+            assertThat(downloads.get()).isEqualTo(1);
+            sleep(Duration.ofMillis(600));
+
+            assertThat(prefetcher.prefetched(config)).isNull();
+            assertThat(client.stats().count("prefetch.expired")).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void observe_cancelsSupersededPrefetch() throws Exception {
+        delayMillis = 1000;
+        try (var prefetcher = prefetcher(Long.MAX_VALUE)) {
+            change(prefetcher);
+            sleep(IDLE.multipliedBy(3));
+
+            config.setJavaVersion("21");
+            prefetcher.observe(config);
+
+            assertThat(client.stats().count("prefetch.cancelled")).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void fetch_joinsPrefetchInFlight() throws Exception {
+        delayMillis = 300;
+        try (var prefetcher = prefetcher(Long.MAX_VALUE)) {
+            change(prefetcher);
+            sleep(IDLE.multipliedBy(2));
+
+            prefetcher.fetch(config);
+
+            assertThat(downloads.get()).isEqualTo(1);
+            assertThat(client.stats().count("prefetch.hits")).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void fetch_downloadsWhenNothingPrefetched() throws Exception {
+        try (var prefetcher = prefetcher(Long.MAX_VALUE)) {
+            prefetcher.fetch(config);
+
+            assertThat(client.stats().count("prefetch.misses")).isEqualTo(1);
+            assertThat(client.stats().format()).contains("prefetch.hit-rate-%");
+        }
+    }
+
+    @Test
+    void prefetch_isRateLimited() throws Exception {
+        zipSize = 32 * 1024;
+        try (var prefetcher = prefetcher(64 * 1024)) {
+            change(prefetcher);
+            sleep(IDLE.plus(Duration.ofMillis(1000)));
+
+            // 32 KiB at 64 KiB/s takes about half a second to read
+            var body = client.stats().percentile("starter.zip", "body", 50, 1);
+            assertThat(body).isNotNull();
+            assertThat(body).isGreaterThan(Duration.ofMillis(400));
+        }
+    }
+
+    @Test
+    void fetch_liftsRateLimitOfJoinedPrefetch() throws Exception {
+        zipSize = 64 * 1024;
+        try (var prefetcher = prefetcher(8 * 1024)) {
+            change(prefetcher);
+            sleep(IDLE.multipliedBy(3));
+            long start = System.nanoTime();
+
+            prefetcher.fetch(config);
+
+            // Throttled, the remaining bytes would take several seconds
+            assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+            assertThat(downloads.get()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void prefetched_leavesDownloadToCallerWhenNothingPrefetched() throws Exception {
+        try (var prefetcher = prefetcher(Long.MAX_VALUE)) {
+            assertThat(prefetcher.prefetched(config)).isNull();
+
+            assertThat(downloads.get()).isEqualTo(0);
+            assertThat(client.stats().count("prefetch.misses")).isEqualTo(1);
+        }
+    }
+}
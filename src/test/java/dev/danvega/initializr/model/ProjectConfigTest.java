@@ -103,6 +103,33 @@ class ProjectConfigTest {
         assertThat(config.getPackageName()).isEqualTo("io.acme.demo");
     }
 
+    // --- fingerprint ---
+
+    @Test
+    void fingerprint_ignoresDependencyOrder() {
+        var other = new ProjectConfig();
+        config.toggleDependency("web");
+        config.toggleDependency("jpa");
+        other.toggleDependency("jpa");
+        other.toggleDependency("web");
+        assertThat(config.fingerprint()).isEqualTo(other.fingerprint());
+    }
+
+    @Test
+    void fingerprint_treatsEquivalentBootVersionsAsEqual() {
+        var other = new ProjectConfig();
+        config.setBootVersion("3.4.0.RELEASE");
+        other.setBootVersion("3.4.0");
+        assertThat(config.fingerprint()).isEqualTo(other.fingerprint());
+    }
+
+    @Test
+    void fingerprint_changesWithConfig() {
+        String before = config.fingerprint();
+        config.setJavaVersion("21");
+        assertThat(config.fingerprint()).isNotEqualTo(before);
+    }
+
     // --- applyDefaults ---
 
     @Test
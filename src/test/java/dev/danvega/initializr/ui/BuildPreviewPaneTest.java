@@ -0,0 +1,106 @@
+package dev.danvega.initializr.ui;
+
+import dev.danvega.initializr.model.ProjectConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BuildPreviewPaneTest {
+
+    private static final Duration DEBOUNCE = Duration.ofMillis(50);
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private final AtomicInteger interrupted = new AtomicInteger();
+    private volatile long loadMillis;
+    private ProjectConfig config;
+    private BuildPreviewPane pane;
+
+    @BeforeEach
+    void setUp() {
+        config = new ProjectConfig();
+        pane = new BuildPreviewPane(snapshot -> {
+            loads.incrementAndGet();
+            try {
+                Thread.sleep(loadMillis);
+            } catch (InterruptedException e) {
+                interrupted.incrementAndGet();
+                throw e;
+            }
+            return "java " + snapshot.getJavaVersion();
+        }, DEBOUNCE);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pane.close();
+    }
+
+    private void awaitIdle() throws InterruptedException {
+        for (int i = 0; i < 100 && pane.isLoading(); i++) {
+            Thread.sleep(20);
+        }
+    }
+
+    @Test
+    void refresh_doesNothingWhileHidden() throws Exception {
+        pane.refresh(config);
+        Thread.sleep(DEBOUNCE.multipliedBy(4).toMillis());
+
+        assertThat(loads.get()).isEqualTo(0);
+    }
+
+    @Test
+    void toggle_loadsCurrentConfig() throws Exception {
+        pane.toggle(config);
+        awaitIdle();
+
+        assertThat(pane.getContent()).isEqualTo("java 25");
+    }
+
+    @Test
+    void refresh_debouncesRapidChanges() throws Exception {
+        pane.toggle(config);
+        for (String version : new String[] {"17", "21", "24", "25", "21"}) {
+            config.setJavaVersion(version);
+            pane.refresh(config);
+        }
+        awaitIdle();
+
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(pane.getContent()).isEqualTo("java 21");
+    }
+
+    @Test
+    void refresh_skipsUnchangedConfig() throws Exception {
+        pane.toggle(config);
+        awaitIdle();
+
+        pane.refresh(config);
+        pane.refresh(config);
+        awaitIdle();
+
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    void refresh_cancelsOutdatedLoadAndNeverBlocks() throws Exception {
+        loadMillis = 2000;
+        pane.toggle(config);
+        Thread.sleep(DEBOUNCE.multipliedBy(3).toMillis());
+
+        loadMillis = 0;
+        config.setJavaVersion("21");
+        long start = System.nanoTime();
+        pane.refresh(config);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(50));
+        awaitIdle();
+
+        assertThat(interrupted.get()).isEqualTo(1);
+        assertThat(pane.getContent()).isEqualTo("java 21");
+    }
+}
@@ -0,0 +1,115 @@
+package dev.danvega.initializr.ui;
+
+import dev.danvega.initializr.api.DependencyCatalog;
+import dev.danvega.initializr.api.SyntheticCatalog;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Fuzzy search with candidates pruned through the character-pair index against scoring
+ * every dependency, on generated catalogs from start.spring.io's size up to a large
+ * federated one. Prints the time per keystroke and the share of the catalog left to
+ * score; run with {@code mvn test -Dgroups=scale}.
+ */
+@Tag("scale")
+class DependencyIndexScaleTest {
+
+    private static final long SEED = 42;
+    private static final List<Integer> SIZES = List.of(200, 1_000, 5_000, 20_000, 50_000);
+
+    // Every prefix is searched from scratch, as the first keystrokes of a query are
+    private static final List<String> TYPED = List.of(
+            "spring data jpa", "acme kafka stream", "team orion redis", "obsrvblty", "postgres");
+
+    private static List<String> keystrokes() {
+        var queries = new ArrayList<String>();
+        for (String query : TYPED) {
+            for (int i = 1; i <= query.length(); i++) queries.add(query.substring(0, i));
+        }
+        return queries;
+    }
+
+    private static Duration median(int runs, Runnable action) {
+        for (int i = 0; i < runs; i++) action.run();
+        var nanos = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            long start = System.nanoTime();
+            action.run();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return Duration.ofNanos(nanos[runs / 2]);
+    }
+
+    private static int best(FuzzyScorer scorer, DependencyIndex index, String query, int ordinal) {
+        int best = 0;
+        for (int field = 0; field < DependencyIndex.FIELDS; field++) {
+            best = Math.max(best, scorer.score(query, index.text(ordinal, field), index.lowerText(ordinal, field)));
+        }
+        return best;
+    }
+
+    /** Matches found by scoring every field of every dependency. */
+    private static int bruteForce(FuzzyScorer scorer, DependencyIndex index, int size, String query) {
+        int matches = 0;
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            if (best(scorer, index, query, ordinal) > 0) matches++;
+        }
+        return matches;
+    }
+
+    /** Matches found by scoring only the candidates, as the picker does; counts them in {@code scored}. */
+    private static int pruned(FuzzyScorer scorer, DependencyIndex index, long[] candidates, String query, int[] scored) {
+        index.candidates(query, candidates);
+        long queryMask = DependencyIndex.mask(query);
+        int matches = 0;
+        for (int ordinal = DependencyIndex.next(candidates, 0); ordinal >= 0;
+             ordinal = DependencyIndex.next(candidates, ordinal + 1)) {
+            scored[0]++;
+            int best = 0;
+            for (int field = 0; field < DependencyIndex.FIELDS; field++) {
+                if (!index.mayMatch(ordinal, field, queryMask)) continue;
+                best = Math.max(best, scorer.score(query, index.text(ordinal, field), index.lowerText(ordinal, field)));
+            }
+            if (best > 0) matches++;
+        }
+        return matches;
+    }
+
+    @Test
+    void candidates_searchAgainstScoringEveryDependency() {
+        var scorer = new FuzzyScorer();
+        var queries = keystrokes();
+        System.out.printf("%-8s %14s %14s %10s %10s%n", "deps", "all ms/key", "pruned ms/key", "scored %", "speed-up");
+        for (int size : SIZES) {
+            var catalog = DependencyCatalog.of(SyntheticCatalog.categories(size, SEED));
+            var index = new DependencyIndex(catalog);
+            var candidates = new long[index.words()];
+            var scored = new int[1];
+
+            for (String query : queries) {
+                assertThat(pruned(scorer, index, candidates, query, new int[1]))
+                        .as("matches for %s among %d dependencies", query, size)
+                        .isEqualTo(bruteForce(scorer, index, catalog.size(), query));
+            }
+            int runs = size >= 20_000 ? 5 : 11;
+            var all = median(runs, () -> queries.forEach(query -> bruteForce(scorer, index, catalog.size(), query)));
+            var pruning = median(runs, () -> queries.forEach(query -> pruned(scorer, index, candidates, query, scored)));
+            scored[0] = 0;
+            queries.forEach(query -> pruned(scorer, index, candidates, query, scored));
+
+            double allMs = all.toNanos() / 1e6 / queries.size();
+            double prunedMs = pruning.toNanos() / 1e6 / queries.size();
+            System.out.printf("%-8d %14.3f %14.3f %10.1f %9.1fx%n", size, allMs, prunedMs,
+                    100.0 * scored[0] / ((double) catalog.size() * queries.size()), allMs / prunedMs);
+            assertThat(pruning).as("pruned search of %d dependencies", size).isLessThanOrEqualTo(all);
+        }
+    }
+}
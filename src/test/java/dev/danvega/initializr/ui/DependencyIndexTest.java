@@ -0,0 +1,124 @@
+package dev.danvega.initializr.ui;
+
+import dev.danvega.initializr.api.DependencyCatalog;
+import dev.danvega.initializr.api.InitializrMetadata;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DependencyIndexTest {
+
+    private static DependencyIndex index(InitializrMetadata.Dependency... deps) {
+        return new DependencyIndex(DependencyCatalog.of(List.of(
+                new InitializrMetadata.DependencyCategory("All", List.of(deps)))));
+    }
+
+    private static InitializrMetadata.Dependency dep(String id, String name, String description) {
+        return new InitializrMetadata.Dependency(id, name, description, null);
+    }
+
+    private static long[] candidates(DependencyIndex index, String query) {
+        var result = new long[index.words()];
+        index.candidates(query, result);
+        return result;
+    }
+
+    private static List<Integer> ordinals(long[] set) {
+        var result = new ArrayList<Integer>();
+        for (int i = DependencyIndex.next(set, 0); i >= 0; i = DependencyIndex.next(set, i + 1)) {
+            result.add(i);
+        }
+        return result;
+    }
+
+    private static boolean isSubsequence(String query, String text) {
+        int t = 0;
+        for (int q = 0; q < query.length(); q++) {
+            t = text.indexOf(query.charAt(q), t);
+            if (t < 0) return false;
+            t++;
+        }
+        return true;
+    }
+
+    @Test
+    void candidates_matchesCharactersInOrderAcrossFields() {
+        var index = index(
+                dep("web", "Spring Web", "Build web applications"),
+                dep("webflux", "Spring Reactive Web", "Reactive web apps"),
+                dep("jpa", "Spring Data JPA", "Java Persistence API"));
+
+        assertThat(ordinals(candidates(index, "wbflx"))).containsExactly(1);
+        assertThat(ordinals(candidates(index, "jpa"))).containsExactly(2);
+        assertThat(ordinals(candidates(index, "spring"))).containsExactly(0, 1, 2);
+        assertThat(ordinals(candidates(index, "xyz"))).isEmpty();
+    }
+
+    @Test
+    void candidates_requiresOrderNotJustPresence() {
+        var index = index(dep("ab", "ab", null), dep("ba", "ba", null));
+
+        assertThat(ordinals(candidates(index, "ab"))).containsExactly(0);
+        assertThat(ordinals(candidates(index, "aa"))).isEmpty();
+    }
+
+    @Test
+    void candidates_neverDropsASubsequenceMatch() {
+        var random = new Random(7);
+        var deps = new ArrayList<InitializrMetadata.Dependency>();
+        for (int i = 0; i < 300; i++) {
+            deps.add(dep(randomText(random, 6), randomText(random, 12), randomText(random, 30)));
+        }
+        var index = index(deps.toArray(InitializrMetadata.Dependency[]::new));
+
+        for (int q = 0; q < 200; q++) {
+            String query = randomText(random, 1 + random.nextInt(4));
+            var candidates = ordinals(candidates(index, query));
+            for (int i = 0; i < deps.size(); i++) {
+                var d = deps.get(i);
+                boolean matches = isSubsequence(query, d.id().toLowerCase()) || isSubsequence(query, d.name().toLowerCase())
+                        || isSubsequence(query, d.description().toLowerCase());
+                if (matches) assertThat(candidates).contains(i);
+            }
+        }
+    }
+
+    @Test
+    void mayMatch_rejectsFieldsMissingAQueryCharacter() {
+        var index = index(dep("jpa", "Spring Data JPA", "Java Persistence API"));
+        long mask = DependencyIndex.mask("pers");
+
+        assertThat(index.mayMatch(0, DependencyIndex.NAME, mask)).isFalse();
+        assertThat(index.mayMatch(0, DependencyIndex.ID, mask)).isFalse();
+        assertThat(index.mayMatch(0, DependencyIndex.DESCRIPTION, mask)).isTrue();
+    }
+
+    @Test
+    void mask_foldsCharactersIntoClasses() {
+        assertThat(DependencyIndex.mask("aa")).isEqualTo(1L);
+        assertThat(DependencyIndex.mask("z9")).isEqualTo(1L << 25 | 1L << 35);
+        assertThat(DependencyIndex.mask("-.é")).isEqualTo(1L << 36);
+    }
+
+    @Test
+    void next_walksSetBitsAcrossWords() {
+        long[] set = new long[3];
+        set[0] = 1L << 5;
+        set[2] = 1L << 63;
+
+        assertThat(DependencyIndex.next(set, 0)).isEqualTo(5);
+        assertThat(DependencyIndex.next(set, 6)).isEqualTo(191);
+        assertThat(DependencyIndex.next(set, 192)).isEqualTo(-1);
+    }
+
+    private static String randomText(Random random, int length) {
+        String alphabet = "abcdeSPRING-. 12";
+        var sb = new StringBuilder();
+        for (int i = 0; i < length; i++) sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        return sb.toString();
+    }
+}
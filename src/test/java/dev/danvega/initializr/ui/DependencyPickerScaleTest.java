@@ -0,0 +1,289 @@
+package dev.danvega.initializr.ui;
+
+import dev.danvega.initializr.api.DependencyCatalog;
+import dev.danvega.initializr.api.InitializrMetadata;
+import dev.danvega.initializr.api.SyntheticCatalog;
+import dev.danvega.initializr.model.ProjectConfig;
+import com.sun.management.ThreadMXBean;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Latency of the dependency picker on generated catalogs from start.spring.io's size up
+ * to a large federated catalog. Budgets are about five times the medians measured on a
+ * single slow core, so they fail on real regressions rather than on a noisy machine.
+ * Wall-clock budgets are too machine-dependent for every build, so the {@code scale} tag
+ * is excluded by default; run this suite with {@code mvn test -Dgroups=scale}.
+ */
+@Tag("scale")
+class DependencyPickerScaleTest {
+
+    private static final long SEED = 42;
+
+    // A category cycle visits every category, then the full listing again
+    private record Budget(int dependencies, Duration build, Duration keystroke, Duration fullTextKeystroke,
+                          Duration typoSearch, Duration categoryCycle, Duration moveDown, Duration render) {}
+
+    private static final List<Budget> BUDGETS = List.of(
+            new Budget(200, ms(50), ms(1), ms(1), ms(2), ms(2), micros(10), ms(5)),
+            new Budget(5_000, ms(300), ms(2), ms(4), ms(2), ms(5), micros(10), ms(5)),
+            new Budget(50_000, ms(1_500), ms(20), ms(5), ms(2), ms(20), micros(10), ms(5)));
+
+    // Typed a character at a time, then deleted again
+    private static final List<String> TYPED = List.of(
+            "spring data jpa", "acme kafka stream", "team orion redis", "obsrvblty", "postgres");
+
+    // Misspelled, as for the typo fallback
+    private static final List<String> MISSPELLED = List.of("kafak", "postgress", "acme kafak strem", "obesrvability");
+
+    private static Duration ms(long millis) { return Duration.ofMillis(millis); }
+    private static Duration micros(long micros) { return Duration.ofNanos(micros * 1_000); }
+
+    // Searches run on the calling thread so their full cost is measured
+    private static DependencyPicker picker(List<InitializrMetadata.DependencyCategory> categories) {
+        return new DependencyPicker(categories, new ProjectConfig(), List.of(), Runnable::run,
+                DependencyPicker.PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * Median time of {@code action} over {@code runs} runs, after as many warm-up runs.
+     */
+    private static Duration median(int runs, Runnable action) {
+        for (int i = 0; i < runs; i++) action.run();
+        var nanos = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            long start = System.nanoTime();
+            action.run();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return Duration.ofNanos(nanos[runs / 2]);
+    }
+
+    // --- latency budgets ---
+
+    @Test
+    void constructor_staysWithinBudget() {
+        for (var budget : BUDGETS) {
+            var categories = SyntheticCatalog.categories(budget.dependencies(), SEED);
+            var build = median(3, () -> picker(categories));
+
+            assertThat(build).as("build with %d dependencies", budget.dependencies())
+                    .isLessThanOrEqualTo(budget.build());
+        }
+    }
+
+    @Test
+    void setSearchQuery_staysWithinBudgetPerKeystroke() {
+        for (var budget : BUDGETS) {
+            var picker = picker(SyntheticCatalog.categories(budget.dependencies(), SEED));
+            int keystrokes = TYPED.stream().mapToInt(query -> 2 * query.length()).sum();
+            var typing = median(5, () -> {
+                for (String query : TYPED) {
+                    for (int i = 1; i <= query.length(); i++) picker.setSearchQuery(query.substring(0, i));
+                    for (int i = query.length() - 1; i >= 0; i--) picker.setSearchQuery(query.substring(0, i));
+                }
+            });
+
+            assertThat(typing.dividedBy(keystrokes)).as("keystroke with %d dependencies", budget.dependencies())
+                    .isLessThanOrEqualTo(budget.keystroke());
+        }
+    }
+
+    @Test
+    void setSearchQuery_fullTextStaysWithinBudgetPerKeystroke() {
+        for (var budget : BUDGETS) {
+            var picker = picker(SyntheticCatalog.categories(budget.dependencies(), SEED));
+            int keystrokes = TYPED.stream().mapToInt(String::length).sum();
+            // The index is built on the first full-text search, during warm-up
+            var typing = median(5, () -> {
+                for (String query : TYPED) {
+                    for (int i = 1; i <= query.length(); i++) {
+                        picker.setSearchQuery(DependencyPicker.FULL_TEXT_PREFIX + query.substring(0, i));
+                    }
+                }
+            });
+
+            assertThat(typing.dividedBy(keystrokes)).as("full-text keystroke with %d dependencies", budget.dependencies())
+                    .isLessThanOrEqualTo(budget.fullTextKeystroke());
+        }
+    }
+
+    @Test
+    void typoIndex_searchStaysWithinBudget() {
+        for (var budget : BUDGETS) {
+            var catalog = DependencyCatalog.of(SyntheticCatalog.categories(budget.dependencies(), SEED));
+            var index = new TypoIndex(catalog);
+            var ordinals = new int[catalog.size()];
+            var distances = new int[catalog.size()];
+            // Timed on the index itself: on a catalog this size fuzzy matching rarely leaves it to the fallback
+            var searching = median(5, () -> MISSPELLED.forEach(query -> index.search(query, ordinals, distances)));
+
+            assertThat(searching.dividedBy(MISSPELLED.size())).as("typo search with %d dependencies", budget.dependencies())
+                    .isLessThanOrEqualTo(budget.typoSearch());
+        }
+    }
+
+    @Test
+    void cycleCategory_staysWithinBudget() {
+        for (var budget : BUDGETS) {
+            var categories = SyntheticCatalog.categories(budget.dependencies(), SEED);
+            var picker = picker(categories);
+            var cycle = median(3, () -> {
+                for (int i = 0; i <= categories.size(); i++) picker.cycleCategory();
+            });
+
+            assertThat(cycle).as("category cycle with %d dependencies", budget.dependencies())
+                    .isLessThanOrEqualTo(budget.categoryCycle());
+        }
+    }
+
+    @Test
+    void moveDown_staysWithinBudget() {
+        for (var budget : BUDGETS) {
+            var picker = picker(SyntheticCatalog.categories(budget.dependencies(), SEED));
+            var move = median(5, () -> {
+                for (int i = 0; i < 100; i++) picker.moveDown();
+            });
+
+            assertThat(move.dividedBy(100)).as("cursor move with %d dependencies", budget.dependencies())
+                    .isLessThanOrEqualTo(budget.moveDown());
+        }
+    }
+
+    @Test
+    void render_staysWithinBudget() {
+        for (var budget : BUDGETS) {
+            var picker = picker(SyntheticCatalog.categories(budget.dependencies(), SEED));
+            for (int i = 0; i < 150; i++) picker.moveDown();
+            var browsing = median(20, picker::render);
+            picker.setSearchQuery("spring data");
+            var searching = median(20, picker::render);
+
+            assertThat(browsing).as("render listing with %d dependencies", budget.dependencies())
+                    .isLessThanOrEqualTo(budget.render());
+            assertThat(searching).as("render results with %d dependencies", budget.dependencies())
+                    .isLessThanOrEqualTo(budget.render());
+        }
+    }
+
+    // --- ranking and allocation ---
+
+    @Test
+    void selectTop_beatsSortingEveryMatch() {
+        var random = new Random(SEED);
+        var top = new long[DependencyPicker.MAX_RESULTS];
+        System.out.printf("%-8s %12s %12s%n", "matches", "heap ms", "sort ms");
+        for (int matches : List.of(1_000, 10_000, 50_000)) {
+            var ordinals = new int[matches];
+            var scores = new int[matches];
+            for (int i = 0; i < matches; i++) {
+                ordinals[i] = i;
+                scores[i] = random.nextInt(1200);
+            }
+            var heap = median(11, () -> DependencyPicker.selectTop(ordinals, scores, matches, top));
+            // As the picker ranked before: a stable sort of every match by descending score
+            var sort = median(11, () -> {
+                var ranked = new ArrayList<Integer>(matches);
+                for (int i = 0; i < matches; i++) ranked.add(i);
+                ranked.sort(Comparator.comparingInt((Integer i) -> scores[i]).reversed());
+                ranked.subList(0, DependencyPicker.MAX_RESULTS);
+            });
+            System.out.printf("%-8d %12.3f %12.3f%n", matches, heap.toNanos() / 1e6, sort.toNanos() / 1e6);
+
+            assertThat(heap).as("top %d of %d matches", DependencyPicker.MAX_RESULTS, matches).isLessThanOrEqualTo(sort);
+        }
+    }
+
+    @Test
+    void setSearchQuery_allocationPerKeystroke() {
+        var threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().threadId();
+        System.out.printf("%-8s %14s%n", "deps", "KB/keystroke");
+        for (var budget : BUDGETS) {
+            var picker = picker(SyntheticCatalog.categories(budget.dependencies(), SEED));
+            int keystrokes = TYPED.stream().mapToInt(String::length).sum();
+            long allocated = 0;
+            for (int run = 0; run < 2; run++) {
+                allocated = 0;
+                for (String query : TYPED) {
+                    // From scratch each time, so no earlier result is reused; the listing is not counted
+                    picker.setSearchQuery("");
+                    long before = threads.getThreadAllocatedBytes(thread);
+                    for (int i = 1; i <= query.length(); i++) picker.setSearchQuery(query.substring(0, i));
+                    allocated += threads.getThreadAllocatedBytes(thread) - before;
+                }
+            }
+            long perKeystroke = allocated / keystrokes;
+            System.out.printf("%-8d %14.1f%n", budget.dependencies(), perKeystroke / 1024.0);
+        }
+    }
+
+    // --- parallel crossover ---
+
+    @Test
+    void setSearchQuery_parallelCrossover() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        Integer crossover = null;
+        System.out.printf("%d cores%n%-8s %16s %16s%n", cores, "deps", "sequential ms/key", "fork-join ms/key");
+        for (int size : List.of(1_000, 2_000, 4_000, 8_000, 16_000, 32_000, 50_000)) {
+            var categories = SyntheticCatalog.categories(size, SEED);
+            var sequential = new DependencyPicker(categories, new ProjectConfig(), List.of(), Runnable::run,
+                    Integer.MAX_VALUE);
+            // A threshold of 1 splits every search, however few candidates it has
+            var parallel = new DependencyPicker(categories, new ProjectConfig(), List.of(), Runnable::run, 1);
+            var sequentialTime = typingFromScratch(sequential);
+            var parallelTime = typingFromScratch(parallel);
+            System.out.printf("%-8d %16.3f %16.3f%n", size, sequentialTime, parallelTime);
+
+            assertThat(ids(parallel)).containsExactly(ids(sequential).toArray());
+            // The smallest size from which fork-join wins at every larger size too
+            if (parallelTime >= sequentialTime) {
+                crossover = null;
+            } else if (crossover == null) {
+                crossover = size;
+            }
+        }
+        System.out.println(crossover != null
+                ? "fork-join wins from about " + crossover + " dependencies; PARALLEL_THRESHOLD is "
+                        + DependencyPicker.PARALLEL_THRESHOLD + " candidates"
+                : "fork-join does not win up to 50000 dependencies on " + cores + " cores");
+    }
+
+    // Median milliseconds per keystroke typing TYPED, each query from an empty search
+    private static double typingFromScratch(DependencyPicker picker) {
+        int keystrokes = TYPED.stream().mapToInt(String::length).sum();
+        var nanos = new long[5];
+        for (int run = -5; run < nanos.length; run++) {
+            long typing = 0;
+            for (String query : TYPED) {
+                // Resetting rebuilds the full listing, which is not part of the comparison
+                picker.setSearchQuery("");
+                long start = System.nanoTime();
+                for (int i = 1; i <= query.length(); i++) picker.setSearchQuery(query.substring(0, i));
+                typing += System.nanoTime() - start;
+            }
+            if (run >= 0) nanos[run] = typing;
+        }
+        Arrays.sort(nanos);
+        return nanos[nanos.length / 2] / 1e6 / keystrokes;
+    }
+
+    private static List<String> ids(DependencyPicker picker) {
+        picker.setSearchQuery("spring data");
+        return picker.getFlatItems().stream()
+                .filter(item -> !item.isCategory())
+                .map(item -> item.dependency().id())
+                .toList();
+    }
+}
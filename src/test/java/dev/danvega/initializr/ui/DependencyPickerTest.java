@@ -5,7 +5,9 @@ import dev.danvega.initializr.model.ProjectConfig;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -25,7 +27,17 @@ class DependencyPickerTest {
     @BeforeEach
     void setUp() {
         config = new ProjectConfig();
-        var categories = List.of(
+        picker = picker(categories(), config);
+    }
+
+    // Searches run on the calling thread, so results are in place as soon as it returns
+    private static DependencyPicker picker(List<InitializrMetadata.DependencyCategory> categories,
+                                           ProjectConfig config) {
+        return new DependencyPicker(categories, config, List.of(), Runnable::run, Integer.MAX_VALUE);
+    }
+
+    private static List<InitializrMetadata.DependencyCategory> categories() {
+        return List.of(
                 new InitializrMetadata.DependencyCategory("Web", List.of(
                         dep("web", "Spring Web", "Build web applications"),
                         dep("webflux", "Spring Reactive Web", "Reactive web apps")
@@ -35,11 +47,10 @@ class DependencyPickerTest {
                         dep("jdbc", "Spring Data JDBC", "JDBC support")
                 ))
         );
-        picker = new DependencyPicker(categories, config, List.of());
     }
 
     private static InitializrMetadata.Dependency dep(String id, String name, String description) {
-        return new InitializrMetadata.Dependency(id, name, description, null, null);
+        return new InitializrMetadata.Dependency(id, name, description, null);
     }
 
     // --- search filtering ---
@@ -57,6 +68,291 @@ class DependencyPickerTest {
         assertThat(picker.getSearchQuery()).isEmpty();
     }
 
+    @Test
+    void setSearchQuery_putsCursorOnBestMatch() {
+        picker.setSearchQuery("jdbc");
+        picker.toggleSelected();
+        assertThat(config.isDependencySelected("jdbc")).isTrue();
+    }
+
+    @Test
+    void setSearchQuery_matchesCharactersOutOfSequence() {
+        picker.setSearchQuery("wbflx");
+        picker.toggleSelected();
+        assertThat(config.isDependencySelected("webflux")).isTrue();
+    }
+
+    @Test
+    void setSearchQuery_narrowingMatchesFreshSearch() {
+        for (String query : List.of("s", "sp", "spr", "spring", "spring d", "spring da")) {
+            picker.setSearchQuery(query);
+        }
+        var fresh = picker(categories(), new ProjectConfig());
+        fresh.setSearchQuery("spring da");
+
+        assertThat(ids(picker)).containsExactly("jpa", "jdbc");
+        assertThat(ids(picker)).isEqualTo(ids(fresh));
+    }
+
+    @Test
+    void setSearchQuery_backspaceRestoresEarlierResults() {
+        picker.setSearchQuery("j");
+        var before = ids(picker);
+        picker.setSearchQuery("jd");
+        picker.setSearchQuery("jdb");
+
+        picker.setSearchQuery("jd");
+        assertThat(ids(picker)).containsExactly("jdbc");
+        picker.setSearchQuery("j");
+        assertThat(ids(picker)).isEqualTo(before);
+    }
+
+    @Test
+    void setSearchQuery_editedQueryScansAgain() {
+        picker.setSearchQuery("web");
+        picker.setSearchQuery("jpa");
+        assertThat(ids(picker)).containsExactly("jpa");
+    }
+
+    @Test
+    void setSearchQuery_listsBestMatchesInStableOrderAndCountsTheRest() {
+        var deps = new ArrayList<InitializrMetadata.Dependency>();
+        for (int i = 0; i < DependencyPicker.MAX_RESULTS + 50; i++) {
+            deps.add(dep("starter-" + i, "Starter " + i, "A starter"));
+        }
+        deps.add(dep("best", "Best", "The best starter"));
+        var large = picker(List.of(new InitializrMetadata.DependencyCategory("All", deps)), new ProjectConfig());
+
+        large.setSearchQuery("starter");
+
+        var ids = ids(large);
+        assertThat(ids).hasSize(DependencyPicker.MAX_RESULTS);
+        // Equal scores keep catalog order; the description-only match scores lower
+        assertThat(ids.getFirst()).isEqualTo("starter-0");
+        assertThat(ids.getLast()).isEqualTo("starter-" + (DependencyPicker.MAX_RESULTS - 1));
+        assertThat(ids).doesNotContain("best");
+        assertThat(large.getHiddenMatchCount()).isEqualTo(51);
+    }
+
+    @Test
+    void getHiddenMatchCount_isZeroWhenEveryMatchIsListed() {
+        picker.setSearchQuery("web");
+
+        assertThat(picker.getHiddenMatchCount()).isEqualTo(0);
+    }
+
+    @Test
+    void setSearchQuery_parallelScoringMatchesSequential() {
+        var categories = new ArrayList<InitializrMetadata.DependencyCategory>();
+        for (int c = 0; c < 10; c++) {
+            var deps = new ArrayList<InitializrMetadata.Dependency>();
+            for (int i = 0; i < 500; i++) {
+                deps.add(dep("dep-" + c + "-" + i, "Spring Module " + (i % 37), "Support for feature " + i));
+            }
+            categories.add(new InitializrMetadata.DependencyCategory("Category " + c, deps));
+        }
+        var sequential = picker(categories, new ProjectConfig());
+        var parallel = new DependencyPicker(categories, new ProjectConfig(), List.of(), Runnable::run, 1);
+
+        for (String query : List.of("s", "sp", "spring m", "spring module 1", "feature 4", "fe4")) {
+            sequential.setSearchQuery(query);
+            parallel.setSearchQuery(query);
+            assertThat(ids(parallel)).containsExactly(ids(sequential).toArray());
+        }
+    }
+
+    // --- full-text search ---
+
+    @Test
+    void setSearchQuery_fullTextMatchesWholeWords() {
+        picker.setSearchQuery("api");
+        assertThat(ids(picker)).contains("jpa", "web");
+
+        // Only JPA's description has the word; "applications" merely has the letters
+        picker.setSearchQuery("?api");
+        assertThat(ids(picker)).containsExactly("jpa");
+    }
+
+    @Test
+    void setSearchQuery_fullTextRanksBestMatchFirst() {
+        picker.setSearchQuery("?reactive web");
+        assertThat(ids(picker)).containsExactly("webflux", "web");
+        assertThat(picker.getFlatItems().get(1).matchPositions()).containsExactly(7, 8, 9, 10, 11, 12, 13, 14, 16, 17, 18);
+    }
+
+    @Test
+    void setSearchQuery_fullTextWithoutWordsListsEverything() {
+        picker.setSearchQuery("?");
+        assertThat(ids(picker)).containsExactly("web", "webflux", "jpa", "jdbc");
+    }
+
+    // --- typo fallback ---
+
+    @Test
+    void setSearchQuery_fallsBackToTypoMatches() {
+        picker.setSearchQuery("jdcb");
+        assertThat(ids(picker)).containsExactly("jdbc");
+    }
+
+    @Test
+    void setSearchQuery_listsTypoMatchesAfterFuzzyOnes() {
+        var withDates = picker(List.of(new InitializrMetadata.DependencyCategory("Misc", List.of(
+                dep("dates", "Date Time Utils", "Formatting helpers"),
+                dep("jpa", "Spring Data JPA", "Java Persistence API")))), new ProjectConfig());
+
+        withDates.setSearchQuery("data");
+        assertThat(ids(withDates)).containsExactly("jpa", "dates");
+    }
+
+    @Test
+    void setSearchQuery_skipsTypoMatchesWhenFuzzyFindsEnough() {
+        var deps = new ArrayList<InitializrMetadata.Dependency>();
+        for (int i = 0; i < DependencyPicker.TYPO_FALLBACK_BELOW; i++) {
+            deps.add(dep("data-" + i, "Spring Data " + i, "Data access"));
+        }
+        deps.add(dep("dates", "Date Time Utils", "Formatting helpers"));
+        var many = picker(List.of(new InitializrMetadata.DependencyCategory("Misc", deps)), new ProjectConfig());
+
+        many.setSearchQuery("data");
+        assertThat(ids(many)).doesNotContain("dates");
+    }
+
+    // --- background search ---
+
+    @Test
+    void setSearchQuery_keepsLastResultsUntilSearchCompletes() {
+        var tasks = new ArrayList<Runnable>();
+        var deferred = new DependencyPicker(categories(), new ProjectConfig(), List.of(), tasks::add, Integer.MAX_VALUE);
+
+        deferred.setSearchQuery("jpa");
+        assertThat(deferred.isSearching()).isTrue();
+        assertThat(ids(deferred)).containsExactly("web", "webflux", "jpa", "jdbc");
+
+        tasks.forEach(Runnable::run);
+        assertThat(deferred.isSearching()).isFalse();
+        assertThat(ids(deferred)).containsExactly("jpa");
+    }
+
+    @Test
+    void setSearchQuery_skipsSupersededQueries() {
+        var tasks = new ArrayList<Runnable>();
+        var deferred = new DependencyPicker(categories(), new ProjectConfig(), List.of(), tasks::add, Integer.MAX_VALUE);
+        deferred.setSearchQuery("web");
+        deferred.setSearchQuery("jd");
+
+        // The search for "web" was overtaken before it started and publishes nothing
+        tasks.getFirst().run();
+        assertThat(ids(deferred)).containsExactly("web", "webflux", "jpa", "jdbc");
+
+        tasks.getLast().run();
+        assertThat(ids(deferred)).containsExactly("jdbc");
+    }
+
+    @Test
+    void toggleSelected_whileSearchingTogglesTheTypedQuerysResult() {
+        var tasks = new ArrayList<Runnable>();
+        var deferred = new DependencyPicker(categories(), config, List.of(), tasks::add, Integer.MAX_VALUE);
+        var notified = new AtomicInteger();
+        deferred.setOnSelectionChanged(notified::incrementAndGet);
+        deferred.setSearchQuery("jdbc");
+
+        // The full listing is still shown, with Spring Web under the cursor
+        deferred.toggleSelected();
+        assertThat(config.getSelectedDependencies()).isEmpty();
+
+        // Applied as the worker publishes the rows, before anything renders them
+        tasks.forEach(Runnable::run);
+        assertThat(config.getSelectedDependencies()).containsExactly("jdbc");
+        assertThat(notified.get()).isEqualTo(1);
+    }
+
+    @Test
+    void toggleSelected_whenNotSearchingDoesNotNotifyTheListener() {
+        var notified = new AtomicInteger();
+        picker.setOnSelectionChanged(notified::incrementAndGet);
+        picker.setSearchQuery("jdbc");
+
+        picker.toggleSelected();
+
+        assertThat(config.getSelectedDependencies()).containsExactly("jdbc");
+        assertThat(notified.get()).isEqualTo(0);
+    }
+
+    @Test
+    void toggleSelected_whileSearchingIsDroppedWhenTheQueryChanges() {
+        var tasks = new ArrayList<Runnable>();
+        var deferred = new DependencyPicker(categories(), config, List.of(), tasks::add, Integer.MAX_VALUE);
+        deferred.setSearchQuery("jdbc");
+        deferred.toggleSelected();
+        deferred.setSearchQuery("jd");
+
+        tasks.forEach(Runnable::run);
+        assertThat(config.getSelectedDependencies()).isEmpty();
+    }
+
+    @Test
+    void setSearchQuery_searchesOffTheCallingThread() throws Exception {
+        try (var background = new DependencyPicker(categories(), new ProjectConfig(), List.of())) {
+            background.setSearchQuery("jdbc");
+            for (int i = 0; i < 100 && background.isSearching(); i++) {
+                Thread.sleep(20);
+            }
+
+            assertThat(background.isSearching()).isFalse();
+            assertThat(ids(background)).containsExactly("jdbc");
+        }
+    }
+
+    private static List<String> ids(DependencyPicker picker) {
+        return picker.getFlatItems().stream()
+                .filter(item -> !item.isCategory())
+                .map(item -> item.dependency().id())
+                .toList();
+    }
+
+    // --- carryOver ---
+
+    @Test
+    void carryOver_keepsCategoryFilterAndCursorDependency() {
+        picker.cycleCategory(); // Web
+        picker.cycleCategory(); // Data: jpa under the cursor
+        picker.moveDown();      // jdbc
+
+        var refreshed = picker(List.of(
+                new InitializrMetadata.DependencyCategory("Data", List.of(
+                        dep("r2dbc", "Spring Data R2DBC", "Reactive SQL"),
+                        dep("jpa", "Spring Data JPA", "Java Persistence API"),
+                        dep("jdbc", "Spring Data JDBC", "JDBC support")))), config);
+        refreshed.carryOver(picker);
+        refreshed.toggleSelected();
+
+        assertThat(refreshed.getActiveCategoryName()).isEqualTo("Data");
+        assertThat(config.getSelectedDependencies()).containsExactly("jdbc");
+    }
+
+    @Test
+    void carryOver_keepsSearchQuery() {
+        picker.setSearchQuery("jd");
+
+        var refreshed = picker(categories(), config);
+        refreshed.carryOver(picker);
+
+        assertThat(refreshed.getSearchQuery()).isEqualTo("jd");
+        assertThat(ids(refreshed)).containsExactly("jdbc");
+    }
+
+    @Test
+    void carryOver_showsAllWhenTheCategoryIsGone() {
+        picker.cycleCategory(); // Web
+
+        var refreshed = picker(List.of(new InitializrMetadata.DependencyCategory("Data", List.of(
+                dep("jpa", "Spring Data JPA", "Java Persistence API")))), config);
+        refreshed.carryOver(picker);
+
+        assertThat(refreshed.hasCategoryFilter()).isFalse();
+        assertThat(ids(refreshed)).containsExactly("jpa");
+    }
+
     // --- cursor navigation ---
 
     @Test
@@ -0,0 +1,47 @@
+package dev.danvega.initializr.ui;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FuzzyScorerTest {
+
+    private final FuzzyScorer scorer = new FuzzyScorer();
+
+    private int score(String query, String target) {
+        return scorer.score(query, target, target.toLowerCase());
+    }
+
+    @Test
+    void score_ranksEarlierSubstringsHigher() {
+        assertThat(score("web", "Spring Web")).isEqualTo(1000 + 100 - 7);
+        assertThat(score("web", "Web")).isGreaterThan(score("web", "Spring Web"));
+        assertThat(scorer.copyPositions()).containsExactly(7, 8, 9);
+    }
+
+    @Test
+    void score_matchesCharactersInOrder() {
+        assertThat(score("sdj", "Spring Data JPA")).isGreaterThan(0).isLessThan(1000);
+        assertThat(scorer.copyPositions()).containsExactly(0, 7, 12);
+    }
+
+    @Test
+    void score_rejectsMissingOrOutOfOrderCharacters() {
+        assertThat(score("jds", "Spring Data JPA")).isZero();
+        assertThat(score("x", "Spring Data JPA")).isZero();
+        assertThat(score("web", "")).isZero();
+        assertThat(scorer.copyPositions()).isEmpty();
+    }
+
+    @Test
+    void score_rewardsCamelCaseBoundaries() {
+        assertThat(score("os", "openSearch")).isGreaterThan(score("os", "opensearch"));
+    }
+
+    @Test
+    void score_growsBufferForLongQueries() {
+        String query = "a".repeat(100);
+        assertThat(score(query, "A".repeat(150))).isEqualTo(1100);
+        assertThat(scorer.copyPositions()).hasSize(100);
+    }
+}
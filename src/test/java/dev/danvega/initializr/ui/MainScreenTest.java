@@ -0,0 +1,61 @@
+package dev.danvega.initializr.ui;
+
+import dev.danvega.initializr.api.SyntheticCatalog;
+import dev.danvega.initializr.model.ProjectConfig;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MainScreenTest {
+
+    @Test
+    void updateMetadata_keepsPickerWhenTheCatalogIsUnchanged() {
+        var screen = new MainScreen(SyntheticCatalog.metadata(50, 1), new ProjectConfig(), List.of());
+        var picker = screen.getDependencyPicker();
+        screen.enterSearchMode();
+        screen.appendSearchChar('w');
+
+        screen.updateMetadata(SyntheticCatalog.metadata(50, 1));
+
+        assertThat(screen.getDependencyPicker()).isSameAs(picker);
+        assertThat(picker.getSearchQuery()).isEqualTo("w");
+    }
+
+    @Test
+    void updateMetadata_carriesTheSearchOverToANewCatalog() {
+        var screen = new MainScreen(SyntheticCatalog.metadata(50, 1), new ProjectConfig(), List.of());
+        var picker = screen.getDependencyPicker();
+        screen.enterSearchMode();
+        screen.appendSearchChar('w');
+
+        screen.updateMetadata(SyntheticCatalog.metadata(60, 1));
+
+        assertThat(screen.getDependencyPicker()).isNotSameAs(picker);
+        assertThat(screen.getDependencyPicker().getSearchQuery()).isEqualTo("w");
+    }
+
+    @Test
+    void updateMetadata_refreshesPreviewWhenTheBootVersionIsDropped() throws Exception {
+        var config = new ProjectConfig();
+        var screen = new MainScreen(SyntheticCatalog.metadata(50, 1), config, List.of());
+        var loaded = new CopyOnWriteArrayList<String>();
+        try (var preview = new BuildPreviewPane(snapshot -> {
+            loaded.add(snapshot.getBootVersion());
+            return "<project/>";
+        }, Duration.ofMillis(10))) {
+            screen.setBuildPreview(preview);
+            config.setBootVersion("0.0.1");
+            preview.toggle(config);
+
+            screen.updateMetadata(SyntheticCatalog.metadata(50, 1));
+            for (int i = 0; i < 100 && !loaded.contains(config.getBootVersion()); i++) Thread.sleep(20);
+
+            assertThat(config.getBootVersion()).isNotEqualTo("0.0.1");
+            assertThat(loaded).contains(config.getBootVersion());
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package dev.danvega.initializr.ui;
+
+import dev.danvega.initializr.api.DependencyCatalog;
+import dev.danvega.initializr.api.InitializrMetadata;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TextIndexTest {
+
+    private static final List<InitializrMetadata.Dependency> DEPS = List.of(
+            dep("cache", "Spring Cache Abstraction", "Provides cache-related operations, such as the ability to update the content of the cache."),
+            dep("caffeine", "Caffeine", "High performance caching library."),
+            dep("redis", "Spring Data Redis", "Advanced key-value store, often used as a cache, message broker and database."),
+            dep("actuator", "Spring Boot Actuator", "Supports built in (or custom) endpoints that let you monitor and manage your application."),
+            dep("web", "Spring Web", "Build web, including RESTful, applications using Spring MVC."));
+
+    private static InitializrMetadata.Dependency dep(String id, String name, String description) {
+        return new InitializrMetadata.Dependency(id, name, description, null);
+    }
+
+    private static final TextIndex INDEX = new TextIndex(DependencyCatalog.of(List.of(
+            new InitializrMetadata.DependencyCategory("All", DEPS))));
+
+    /** Ids of the matches for {@code query}, best first. */
+    private static List<String> search(String query) {
+        var ordinals = new int[DEPS.size()];
+        var scores = new int[DEPS.size()];
+        int count = INDEX.search(query, ordinals, scores);
+        var ranked = new ArrayList<int[]>();
+        for (int i = 0; i < count; i++) ranked.add(new int[] {ordinals[i], scores[i]});
+        ranked.sort(Comparator.comparingInt((int[] match) -> -match[1]).thenComparingInt(match -> match[0]));
+        return ranked.stream().map(match -> DEPS.get(match[0]).id()).toList();
+    }
+
+    // --- words ---
+
+    @Test
+    void words_splitsOnNonAlphanumericsAndLowercases() {
+        assertThat(TextIndex.words("Cache-related (JSR-107) ops")).containsExactly("cache", "related", "jsr", "107", "ops");
+        assertThat(TextIndex.words(null)).isEmpty();
+    }
+
+    // --- search ---
+
+    @Test
+    void search_matchesWholeWordsOnly() {
+        // Caffeine only mentions "caching", which shares the letters but is another word
+        assertThat(search("cache")).containsExactly("cache", "redis");
+    }
+
+    @Test
+    void search_matchesLastWordAsPrefix() {
+        // "caching" counts as much as "cache"; Caffeine's shorter description puts it before Redis
+        assertThat(search("cach")).containsExactly("cache", "caffeine", "redis");
+        assertThat(search("caf")).containsExactly("caffeine");
+    }
+
+    @Test
+    void search_ranksNameAndRepeatedMatchesFirst() {
+        // Named "Cache" and mentions it twice, versus once in passing
+        assertThat(search("cache").getFirst()).isEqualTo("cache");
+    }
+
+    @Test
+    void search_weighsRareWordsOverCommonOnes() {
+        // "spring" is in four names, "monitor" in one description
+        assertThat(search("monitor spring").getFirst()).isEqualTo("actuator");
+    }
+
+    @Test
+    void search_returnsNothingForUnknownWords() {
+        assertThat(search("kubernetes")).isEmpty();
+    }
+
+    // --- matchPositions ---
+
+    @Test
+    void matchPositions_highlightsMatchedNameWords() {
+        assertThat(TextIndex.matchPositions("Spring Data Redis", "redis dat")).containsExactly(7, 8, 9, 10, 12, 13, 14, 15, 16);
+        assertThat(TextIndex.matchPositions("Spring Web", "cache")).isNull();
+    }
+}
@@ -0,0 +1,114 @@
+package dev.danvega.initializr.ui;
+
+import dev.danvega.initializr.api.DependencyCatalog;
+import dev.danvega.initializr.api.InitializrMetadata;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TypoIndexTest {
+
+    private static TypoIndex index(List<InitializrMetadata.Dependency> deps) {
+        return new TypoIndex(DependencyCatalog.of(List.of(new InitializrMetadata.DependencyCategory("All", deps))));
+    }
+
+    private static InitializrMetadata.Dependency dep(String id, String name) {
+        return new InitializrMetadata.Dependency(id, name, null, null);
+    }
+
+    private static final List<InitializrMetadata.Dependency> DEPS = List.of(
+            dep("kafka", "Spring for Apache Kafka"),
+            dep("kafka-streams", "Spring for Apache Kafka Streams"),
+            dep("postgresql", "PostgreSQL Driver"),
+            dep("data-jpa", "Spring Data JPA"),
+            dep("release-2024", "Release Train"));
+
+    private static final TypoIndex INDEX = index(DEPS);
+
+    private static List<String> search(TypoIndex index, List<InitializrMetadata.Dependency> deps, String query) {
+        var ordinals = new int[deps.size()];
+        var distances = new int[deps.size()];
+        int count = index.search(query, ordinals, distances);
+        var ids = new ArrayList<String>();
+        for (int i = 0; i < count; i++) ids.add(deps.get(ordinals[i]).id() + ":" + distances[i]);
+        return ids;
+    }
+
+    // --- distance ---
+
+    @Test
+    void distance_countsSwapsAsOneEdit() {
+        assertThat(INDEX.distance("kafak", "kafka")).isEqualTo(1);
+        assertThat(INDEX.distance("postgress", "postgres")).isEqualTo(1);
+        assertThat(INDEX.distance("postgress", "postgresql")).isEqualTo(2);
+        assertThat(INDEX.distance("", "jpa")).isEqualTo(3);
+        assertThat(INDEX.distance("jpa", "jpa")).isEqualTo(0);
+    }
+
+    @Test
+    void distance_editsSwappedCharactersNoFurther() {
+        // Swapping to "ac" and then inserting "b" between them is not counted as two edits
+        assertThat(INDEX.distance("ca", "abc")).isEqualTo(3);
+    }
+
+    @Test
+    void maxDistance_growsWithWordLength() {
+        assertThat(TypoIndex.maxDistance(2)).isEqualTo(0);
+        assertThat(TypoIndex.maxDistance(5)).isEqualTo(1);
+        assertThat(TypoIndex.maxDistance(9)).isEqualTo(2);
+    }
+
+    // --- search ---
+
+    @Test
+    void search_findsMisspelledWords() {
+        assertThat(search(INDEX, DEPS, "kafak")).containsExactly("kafka:1", "kafka-streams:1");
+        assertThat(search(INDEX, DEPS, "postgress")).containsExactly("postgresql:2");
+    }
+
+    @Test
+    void search_requiresEveryWord() {
+        assertThat(search(INDEX, DEPS, "kafak stremas")).containsExactly("kafka-streams:2");
+    }
+
+    @Test
+    void search_ignoresNumbersAndTooDistantWords() {
+        assertThat(search(INDEX, DEPS, "2025")).isEmpty();
+        assertThat(search(INDEX, DEPS, "kfk")).isEmpty();
+    }
+
+    @Test
+    void search_matchesBruteForceOverAllWords() {
+        var random = new Random(7);
+        var deps = new ArrayList<InitializrMetadata.Dependency>();
+        for (int i = 0; i < 300; i++) {
+            deps.add(dep("dep-" + (char) ('a' + i % 26), randomWord(random) + " " + randomWord(random)));
+        }
+        var index = index(deps);
+
+        for (int q = 0; q < 50; q++) {
+            String query = randomWord(random);
+            var expected = new ArrayList<String>();
+            for (var dep : deps) {
+                int best = Integer.MAX_VALUE;
+                for (String word : TextIndex.words(dep.name() + " " + dep.id())) {
+                    if (word.chars().allMatch(Character::isDigit)) continue;
+                    best = Math.min(best, index.distance(query, word));
+                }
+                if (best <= TypoIndex.maxDistance(query.length())) expected.add(dep.id() + ":" + best);
+            }
+            assertThat(search(index, deps, query)).containsExactly(expected.toArray());
+        }
+    }
+
+    private static String randomWord(Random random) {
+        var word = new StringBuilder();
+        int length = 3 + random.nextInt(6);
+        for (int i = 0; i < length; i++) word.append("aeiokstnrl".charAt(random.nextInt(10)));
+        return word.toString();
+    }
+}
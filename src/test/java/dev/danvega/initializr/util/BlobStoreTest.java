@@ -0,0 +1,236 @@
+package dev.danvega.initializr.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BlobStoreTest {
+
+    private static final String MVNW = "#!/bin/sh\nexec java -jar .mvn/wrapper/maven-wrapper.jar \"$@\"\n";
+    private static final String WRAPPER_JAR = "PK wrapper classes";
+    private static final String WRAPPER_PROPERTIES = "distributionUrl=https://repo.maven.apache.org/maven-3.9.9-bin.zip\n";
+
+    @TempDir
+    Path tempDir;
+
+    private BlobStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new BlobStore(tempDir.resolve("blobs"), 1024 * 1024);
+    }
+
+    private static ByteArrayInputStream project(String pom) throws IOException {
+        return new ByteArrayInputStream(ZipExtractorTest.zip(
+                "demo/", null, "demo/mvnw", MVNW,
+                "demo/.mvn/wrapper/maven-wrapper.jar", WRAPPER_JAR,
+                "demo/.mvn/wrapper/maven-wrapper.properties", WRAPPER_PROPERTIES,
+                "demo/pom.xml", pom));
+    }
+
+    private long blobCount() throws IOException {
+        try (var files = Files.walk(tempDir.resolve("blobs/objects"))) {
+            return files.filter(Files::isRegularFile).count();
+        }
+    }
+
+    @Test
+    void materialize_reproducesStoredProject() throws IOException {
+        store.store("fp1", project("<project/>"), tempDir.resolve("first"));
+
+        boolean restored = store.materialize("fp1", tempDir.resolve("second"));
+
+        assertThat(restored).isTrue();
+        assertThat(Files.readString(tempDir.resolve("second/demo/pom.xml"))).isEqualTo("<project/>");
+        assertThat(Files.readString(tempDir.resolve("second/demo/mvnw"))).isEqualTo(MVNW);
+    }
+
+    @Test
+    void store_fromArchiveMatchesStreamedStore() throws IOException {
+        byte[] zip = ZipExtractorTest.zip("demo/", null, "demo/mvnw", MVNW, "demo/pom.xml", "<project/>");
+        store.store("fp1", ZipArchive.read(zip), tempDir.resolve("first"), EntryTransform.NONE);
+
+        assertThat(Files.readString(tempDir.resolve("first/demo/pom.xml"))).isEqualTo("<project/>");
+        assertThat(store.materialize("fp1", tempDir.resolve("second"))).isTrue();
+        assertThat(Files.readString(tempDir.resolve("second/demo/mvnw"))).isEqualTo(MVNW);
+    }
+
+    @Test
+    void materialize_restoresUnixModes() throws IOException {
+        byte[] zip = ZipExtractorTest.zipWithModes(tempDir);
+        store.store("fp1", new ByteArrayInputStream(zip), tempDir.resolve("first"));
+
+        store.materialize("fp1", tempDir.resolve("second"));
+
+        assertThat(ZipExtractorTest.isExecutable(tempDir.resolve("second/demo/mvnw"))).isTrue();
+        assertThat(ZipExtractorTest.isExecutable(tempDir.resolve("second/demo/pom.xml"))).isFalse();
+    }
+
+    @Test
+    void materialize_restoresTransformedEntries() throws IOException {
+        byte[] zip = ZipExtractorTest.zip("demo/src/main/resources/application.properties", "server.port=8080\n");
+        store.store("yaml", new ByteArrayInputStream(zip), tempDir.resolve("first"), new PropertiesToYaml());
+
+        store.materialize("yaml", tempDir.resolve("second"));
+
+        assertThat(Files.readString(tempDir.resolve("second/demo/src/main/resources/application.yml")))
+                .isEqualTo("server:\n  port: 8080\n");
+        assertThat(Files.exists(tempDir.resolve("second/demo/src/main/resources/application.properties"))).isFalse();
+    }
+
+    @Test
+    void materialize_returnsFalseForUnknownFingerprint() throws IOException {
+        assertThat(store.materialize("unknown", tempDir.resolve("out"))).isFalse();
+        assertThat(Files.exists(tempDir.resolve("out"))).isFalse();
+    }
+
+    @Test
+    void store_deduplicatesIdenticalFilesAcrossProjects() throws IOException {
+        store.store("fp1", project("<project>a</project>"), tempDir.resolve("a"));
+        store.store("fp2", project("<project>b</project>"), tempDir.resolve("b"));
+
+        // One shared mvnw, wrapper jar and wrapper properties plus two distinct poms
+        assertThat(blobCount()).isEqualTo(5);
+    }
+
+    @Test
+    void store_hardLinksWrapperJarsAndCopiesTheRest() throws IOException {
+        store.store("fp1", project("<project/>"), tempDir.resolve("a"));
+        store.store("fp2", project("<project/>"), tempDir.resolve("b"));
+
+        String jar = "demo/.mvn/wrapper/maven-wrapper.jar";
+        assertThat(Files.isSameFile(tempDir.resolve("a").resolve(jar), tempDir.resolve("b").resolve(jar))).isTrue();
+        assertThat(Files.isSameFile(tempDir.resolve("a/demo/mvnw"), tempDir.resolve("b/demo/mvnw"))).isFalse();
+        assertThat(Files.isSameFile(tempDir.resolve("a/demo/pom.xml"), tempDir.resolve("b/demo/pom.xml"))).isFalse();
+    }
+
+    @Test
+    void store_keepsEditsToWrapperPropertiesOutOfTheStore() throws IOException {
+        store.store("fp1", project("<project/>"), tempDir.resolve("a"));
+        // As a wrapper upgrade does
+        Files.writeString(tempDir.resolve("a/demo/.mvn/wrapper/maven-wrapper.properties"), "distributionUrl=edited\n");
+
+        store.store("fp2", project("<project/>"), tempDir.resolve("b"));
+
+        assertThat(Files.readString(tempDir.resolve("b/demo/.mvn/wrapper/maven-wrapper.properties")))
+                .isEqualTo(WRAPPER_PROPERTIES);
+        assertThat(store.materialize("fp1", tempDir.resolve("c"))).isTrue();
+        assertThat(Files.readString(tempDir.resolve("c/demo/.mvn/wrapper/maven-wrapper.properties")))
+                .isEqualTo(WRAPPER_PROPERTIES);
+    }
+
+    @Test
+    void store_replacesBlobChangedThroughLink() throws IOException {
+        store.store("fp1", project("<project/>"), tempDir.resolve("a"));
+        Files.writeString(tempDir.resolve("a/demo/.mvn/wrapper/maven-wrapper.jar"), "PK wrapper classes, patched");
+
+        store.store("fp2", project("<project/>"), tempDir.resolve("b"));
+
+        assertThat(Files.readString(tempDir.resolve("b/demo/.mvn/wrapper/maven-wrapper.jar"))).isEqualTo(WRAPPER_JAR);
+        assertThat(store.materialize("fp2", tempDir.resolve("c"))).isTrue();
+        assertThat(Files.readString(tempDir.resolve("c/demo/.mvn/wrapper/maven-wrapper.jar"))).isEqualTo(WRAPPER_JAR);
+    }
+
+    @Test
+    void store_leavesTheModeOfLinkedWrapperJarsToTheBlob() throws IOException {
+        Path zipFile = tempDir.resolve("modes.zip");
+        try (var fs = FileSystems.newFileSystem(zipFile, Map.of("create", "true", "enablePosixFileAttributes", "true"))) {
+            Path jar = fs.getPath("demo/.mvn/wrapper/maven-wrapper.jar");
+            Files.createDirectories(jar.getParent());
+            Files.writeString(jar, WRAPPER_JAR);
+            Files.setPosixFilePermissions(jar, PosixFilePermissions.fromString("rwx------"));
+        }
+        byte[] zip = Files.readAllBytes(zipFile);
+
+        store.store("fp1", new ByteArrayInputStream(zip), tempDir.resolve("a"));
+        store.materialize("fp1", tempDir.resolve("b"));
+
+        Path linked = tempDir.resolve("b/demo/.mvn/wrapper/maven-wrapper.jar");
+        assertThat(Files.getAttribute(linked, "unix:nlink")).isEqualTo(3);
+        assertThat(PosixFilePermissions.toString(Files.getPosixFilePermissions(linked))).isEqualTo("rw-r--r--");
+    }
+
+    @Test
+    void materialize_rejectsCorruptBlob() throws IOException {
+        store.store("fp1", project("<project/>"), tempDir.resolve("a"));
+        // Editing a hard-linked wrapper jar in place changes the stored blob too
+        Files.writeString(tempDir.resolve("a/demo/.mvn/wrapper/maven-wrapper.jar"), "edited");
+
+        assertThat(store.materialize("fp1", tempDir.resolve("b"))).isFalse();
+        assertThat(store.materialize("fp1", tempDir.resolve("b"))).isFalse();
+        assertThat(Files.exists(tempDir.resolve("b"))).isFalse();
+    }
+
+    @Test
+    void materialize_skipsProjectsOlderThanMaxAge() throws IOException {
+        store = new BlobStore(tempDir.resolve("blobs"), 1024 * 1024, Duration.ZERO);
+        store.store("fp1", project("<project/>"), tempDir.resolve("a"));
+
+        assertThat(store.materialize("fp1", tempDir.resolve("b"))).isFalse();
+        assertThat(Files.exists(tempDir.resolve("blobs/manifests/fp1.json"))).isFalse();
+    }
+
+    @Test
+    void store_evictsLeastRecentlyUsedProjectsBeyondMaxBytes() throws IOException {
+        store = new BlobStore(tempDir.resolve("blobs"), 400);
+        String pom = "x".repeat(100);
+        store.store("old", project(pom + "1"), tempDir.resolve("old"));
+        store.store("recent", project(pom + "2"), tempDir.resolve("recent"));
+        var past = FileTime.fromMillis(System.currentTimeMillis() - 60_000);
+        Files.setLastModifiedTime(tempDir.resolve("blobs/manifests/old.json"), past);
+        Files.setLastModifiedTime(tempDir.resolve("blobs/manifests/recent.json"), past);
+        assertThat(store.materialize("recent", tempDir.resolve("again"))).isTrue();
+
+        store.store("new", project(pom + "3"), tempDir.resolve("new"));
+
+        assertThat(store.materialize("old", tempDir.resolve("x"))).isFalse();
+        assertThat(store.materialize("recent", tempDir.resolve("y"))).isTrue();
+        assertThat(store.materialize("new", tempDir.resolve("z"))).isTrue();
+    }
+
+    @Test
+    void evict_keepsUnreferencedBlobsAnotherInstanceMayStillBeStoring() throws IOException {
+        // Written by another instance that has yet to write its manifest
+        Path pending = tempDir.resolve("blobs/objects/ab/cdef");
+        Files.createDirectories(pending.getParent());
+        Files.writeString(pending, "<project/>");
+
+        store.store("fp1", project("<project/>"), tempDir.resolve("a"));
+
+        assertThat(Files.exists(pending)).isTrue();
+    }
+
+    @Test
+    void evict_deletesUnreferencedBlobsOnceNoLongerInUse() throws IOException {
+        Path orphan = tempDir.resolve("blobs/objects/ab/cdef");
+        Files.createDirectories(orphan.getParent());
+        Files.writeString(orphan, "<project/>");
+        long stale = System.currentTimeMillis() - BlobStore.IN_USE_GRACE.toMillis() - 60_000;
+        Files.setLastModifiedTime(orphan, FileTime.fromMillis(stale));
+
+        store.store("fp1", project("<project/>"), tempDir.resolve("a"));
+
+        assertThat(Files.exists(orphan)).isFalse();
+    }
+
+    @Test
+    void isLinkable_coversWrapperJarsOnly() {
+        assertThat(BlobStore.isLinkable("demo/gradle/wrapper/gradle-wrapper.jar")).isTrue();
+        assertThat(BlobStore.isLinkable("demo/.mvn/wrapper/maven-wrapper.jar")).isTrue();
+        assertThat(BlobStore.isLinkable("demo/gradlew")).isFalse();
+        assertThat(BlobStore.isLinkable("demo/.mvn/wrapper/maven-wrapper.properties")).isFalse();
+        assertThat(BlobStore.isLinkable("demo/src/main/resources/application.properties")).isFalse();
+    }
+}
@@ -0,0 +1,63 @@
+package dev.danvega.initializr.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ContentSnifferTest {
+
+    @Test
+    void isText_acceptsUtf8Text() {
+        byte[] text = "package demo;\n\n// Grüße, 日本語 ✓\n\tclass A {}\r\n".getBytes(StandardCharsets.UTF_8);
+        assertThat(ContentSniffer.isText(text)).isTrue();
+        assertThat(ContentSniffer.isText(new byte[0])).isTrue();
+    }
+
+    @Test
+    void isText_rejectsNulBytes() {
+        assertThat(ContentSniffer.isText("PK\u0003\u0004\u0000\u0000".getBytes(StandardCharsets.UTF_8))).isFalse();
+    }
+
+    @Test
+    void isText_rejectsRandomBytesWithoutNul() {
+        byte[] noise = new byte[4096];
+        new Random(42).nextBytes(noise);
+        for (int i = 0; i < noise.length; i++) {
+            if (noise[i] == 0) noise[i] = 1;
+        }
+        assertThat(ContentSniffer.isText(noise)).isFalse();
+    }
+
+    @Test
+    void isText_toleratesAStrayLatin1Character() {
+        assertThat(ContentSniffer.isText("name=café au lait".getBytes(StandardCharsets.ISO_8859_1))).isTrue();
+    }
+
+    @Test
+    void isText_ignoresSequenceCutOffBySampleEnd() {
+        byte[] euro = "€".getBytes(StandardCharsets.UTF_8);
+        assertThat(ContentSniffer.isText(new byte[] {'a', euro[0], euro[1]})).isTrue();
+    }
+
+    @Test
+    void readText_decodesContentLongerThanSample() throws IOException {
+        // A multi-byte character straddling the sample boundary stays intact
+        String text = "x".repeat(ContentSniffer.SNIFF_BYTES - 1) + "é" + "y".repeat(100);
+
+        assertThat(ContentSniffer.readText(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8))))
+                .isEqualTo(text);
+    }
+
+    @Test
+    void readText_stopsAfterSampleForBinary() throws IOException {
+        var in = new ByteArrayInputStream(new byte[1024 * 1024]);
+
+        assertThat(ContentSniffer.readText(in)).isNull();
+        assertThat((long) in.available()).isEqualTo(1024L * 1024 - ContentSniffer.SNIFF_BYTES);
+    }
+}
@@ -0,0 +1,62 @@
+package dev.danvega.initializr.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LruCacheTest {
+
+    private final LruCache<String, String> cache = new LruCache<>(3, 10, value -> value.length());
+
+    @Test
+    void get_countsHitsAndMisses() {
+        cache.put("a", "1");
+
+        assertThat(cache.get("a")).isEqualTo("1");
+        assertThat(cache.get("b")).isNull();
+        assertThat(cache.hits()).isEqualTo(1);
+        assertThat(cache.misses()).isEqualTo(1);
+    }
+
+    @Test
+    void put_evictsLeastRecentlyUsedBeyondMaxEntries() {
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.put("c", "3");
+        cache.get("a");
+
+        cache.put("d", "4");
+
+        assertThat(cache.size()).isEqualTo(3);
+        assertThat(cache.get("b")).isNull();
+        assertThat(cache.get("a")).isEqualTo("1");
+    }
+
+    @Test
+    void put_evictsUntilWithinMaxWeight() {
+        cache.put("a", "12345");
+        cache.put("b", "1234");
+
+        cache.put("c", "123");
+
+        assertThat(cache.weight()).isEqualTo(7);
+        assertThat(cache.get("a")).isNull();
+    }
+
+    @Test
+    void put_replacingKeyAdjustsWeight() {
+        cache.put("a", "12345");
+        cache.put("a", "1");
+
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.weight()).isEqualTo(1);
+    }
+
+    @Test
+    void put_ignoresValueHeavierThanCache() {
+        cache.put("a", "12345678901");
+
+        assertThat(cache.size()).isEqualTo(0);
+        assertThat(cache.weight()).isEqualTo(0);
+    }
+}
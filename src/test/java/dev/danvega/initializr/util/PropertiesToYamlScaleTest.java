@@ -0,0 +1,117 @@
+package dev.danvega.initializr.util;
+
+import com.sun.management.ThreadMXBean;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The trie converter against the line-by-line rewrite it replaced, on a 10k-line
+ * application.properties. Prints time and allocation per conversion; run with
+ * {@code mvn test -Dgroups=scale}.
+ */
+@Tag("scale")
+class PropertiesToYamlScaleTest {
+
+    private static final int LINES = 10_000;
+    private static final int RUNS = 200;
+
+    private static final String[] PREFIXES = {
+            "spring.datasource", "spring.jpa.properties.hibernate", "spring.kafka.consumer",
+            "management.endpoints.web", "server.tomcat.threads", "logging.level.org.springframework",
+            "app.features", "app.clients.billing"};
+
+    /**
+     * Keys under a handful of prefixes in shuffled order, with comments and list indices,
+     * as a grown application.properties tends to look.
+     */
+    private static String properties() {
+        var random = new Random(42);
+        var sb = new StringBuilder();
+        for (int i = 0; i < LINES; i++) {
+            String prefix = PREFIXES[random.nextInt(PREFIXES.length)];
+            switch (random.nextInt(10)) {
+                case 0 -> sb.append("# setting ").append(i).append('\n');
+                case 1 -> sb.append(prefix).append(".servers[").append(i % 8).append("]=host").append(i).append(":9092\n");
+                default -> sb.append(prefix).append(".group").append(i % 50).append(".key").append(i)
+                        .append('=').append(random.nextInt(100_000)).append('\n');
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * The line-by-line conversion as it was before PropertiesToYaml: only the previous
+     * key's parents are reused.
+     */
+    static String lineByLine(String properties) {
+        var lines = properties.lines().toList();
+        var sb = new StringBuilder();
+        String[] prevParts = new String[0];
+
+        for (String line : lines) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                sb.append(trimmed).append('\n');
+                continue;
+            }
+            int eq = trimmed.indexOf('=');
+            if (eq < 0) {
+                sb.append(trimmed).append('\n');
+                continue;
+            }
+            String key = trimmed.substring(0, eq).trim();
+            String value = trimmed.substring(eq + 1).trim();
+            String[] parts = key.split("\\.");
+
+            int common = 0;
+            for (int i = 0; i < Math.min(parts.length - 1, prevParts.length - 1); i++) {
+                if (parts[i].equals(prevParts[i])) common++;
+                else break;
+            }
+            for (int i = common; i < parts.length - 1; i++) {
+                sb.append("  ".repeat(i)).append(parts[i]).append(":\n");
+            }
+            int indent = parts.length - 1;
+            sb.append("  ".repeat(indent)).append(parts[parts.length - 1]).append(": ").append(value).append('\n');
+            prevParts = parts;
+        }
+        return sb.toString();
+    }
+
+    private record Cost(double millis, double megabytes, int outputChars) {}
+
+    private static Cost measure(String input, Function<String, String> convert) {
+        var threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().threadId();
+        int chars = 0;
+        for (int i = 0; i < RUNS; i++) chars = convert.apply(input).length();
+
+        long allocated = threads.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) convert.apply(input);
+        long nanos = System.nanoTime() - start;
+        allocated = threads.getThreadAllocatedBytes(thread) - allocated;
+        return new Cost(nanos / 1e6 / RUNS, allocated / 1e6 / RUNS, chars);
+    }
+
+    @Test
+    void convert_costAgainstLineByLineRewrite() {
+        String input = properties();
+
+        var old = measure(input, PropertiesToYamlScaleTest::lineByLine);
+        var trie = measure(input, PropertiesToYaml::convert);
+
+        System.out.printf("%-14s %10s %10s %12s%n", LINES + " lines", "ms/op", "MB/op", "output KB");
+        System.out.printf("%-14s %10.2f %10.2f %12d%n", "line-by-line", old.millis(), old.megabytes(), old.outputChars() / 1024);
+        System.out.printf("%-14s %10.2f %10.2f %12d%n", "trie", trie.millis(), trie.megabytes(), trie.outputChars() / 1024);
+
+        // The old rewrite repeats a parent each time its keys are interleaved with others
+        assertThat(trie.outputChars()).isLessThan(old.outputChars());
+    }
+}
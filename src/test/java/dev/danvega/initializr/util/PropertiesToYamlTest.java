@@ -0,0 +1,224 @@
+package dev.danvega.initializr.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PropertiesToYamlTest {
+
+    private final PropertiesToYaml transform = new PropertiesToYaml();
+
+    @Test
+    void appliesTo_matchesApplicationPropertiesOnly() {
+        assertThat(transform.appliesTo("demo/src/main/resources/application.properties")).isTrue();
+        assertThat(transform.appliesTo("application.properties")).isTrue();
+        assertThat(transform.appliesTo("demo/src/main/resources/other-application.properties")).isFalse();
+        assertThat(transform.appliesTo("demo/.mvn/wrapper/maven-wrapper.properties")).isFalse();
+    }
+
+    @Test
+    void rename_keepsDirectory() {
+        assertThat(transform.rename("demo/src/main/resources/application.properties"))
+                .isEqualTo("demo/src/main/resources/application.yml");
+    }
+
+    @Test
+    void transform_nestsDottedKeys() throws IOException {
+        var out = new ByteArrayOutputStream();
+        transform.transform(new ByteArrayInputStream("""
+                spring.application.name=demo
+                spring.datasource.url=jdbc:h2:mem:test
+                server.port=8080
+                """.getBytes(StandardCharsets.UTF_8)), out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("""
+                spring:
+                  application:
+                    name: demo
+                  datasource:
+                    url: jdbc:h2:mem:test
+                server:
+                  port: 8080
+                """);
+    }
+
+    // --- syntax ---
+
+    @Test
+    void convert_groupsNonAdjacentKeysUnderOneParent() {
+        assertThat(PropertiesToYaml.convert("""
+                spring.application.name=demo
+                server.port=8080
+                spring.datasource.url=jdbc:h2:mem:test
+                """)).isEqualTo("""
+                spring:
+                  application:
+                    name: demo
+                  datasource:
+                    url: jdbc:h2:mem:test
+                server:
+                  port: 8080
+                """);
+    }
+
+    @Test
+    void convert_acceptsAllSeparatorsAndContinuationLines() {
+        assertThat(PropertiesToYaml.convert("""
+                a.colon: one
+                a.space   two
+                a.equals = three
+                a.continued = first, \\
+                    second
+                """)).isEqualTo("""
+                a:
+                  colon: one
+                  space: two
+                  equals: three
+                  continued: first, second
+                """);
+    }
+
+    @Test
+    void convert_unescapesKeysAndValues() {
+        assertThat(PropertiesToYaml.convert("""
+                app.key\\=with\\:separators=caf\\u00e9
+                app.tabbed=a\\tb
+                app.path=C:\\\\temp
+                """)).isEqualTo("""
+                app:
+                  key=with:separators: café
+                  tabbed: "a\\tb"
+                  path: C:\\temp
+                """);
+    }
+
+    @Test
+    void convert_turnsIndicesIntoSequences() {
+        assertThat(PropertiesToYaml.convert("""
+                app.servers[1]=two
+                app.servers[0]=one
+                app.users[0].name=ann
+                app.users[0].role=admin
+                logging.level.[org.example]=debug
+                """)).isEqualTo("""
+                app:
+                  servers:
+                    - one
+                    - two
+                  users:
+                    - name: ann
+                      role: admin
+                logging:
+                  level:
+                    "[org.example]": debug
+                """);
+    }
+
+    @Test
+    void convert_keepsCommentsAboveTheirKeys() {
+        assertThat(PropertiesToYaml.convert("""
+                # The application
+                spring.application.name=demo
+                ! Web server
+                server.port=8080
+                """)).isEqualTo("""
+                # The application
+                spring:
+                  application:
+                    name: demo
+                # Web server
+                server:
+                  port: 8080
+                """);
+    }
+
+    @Test
+    void convert_quotesValuesYamlWouldReadDifferently() {
+        assertThat(PropertiesToYaml.convert("""
+                a.empty=
+                a.switch=off
+                a.octal=0755
+                a.number=8080
+                a.flag=true
+                a.hash=#fff
+                a.pair=key: value
+                """)).isEqualTo("""
+                a:
+                  empty: ""
+                  switch: "off"
+                  octal: "0755"
+                  number: 8080
+                  flag: true
+                  hash: "#fff"
+                  pair: "key: value"
+                """);
+    }
+
+    @Test
+    void convert_keepsValueAndChildrenOfTheSameKey() {
+        assertThat(PropertiesToYaml.convert("""
+                a=1
+                a.b=2
+                """)).isEqualTo("""
+                a: 1
+                a.b: 2
+                """);
+    }
+
+    @Test
+    void convert_keepsValueAndChildrenOfTheSameListItem() {
+        assertThat(PropertiesToYaml.convert("""
+                app.servers[0]=one
+                app.servers[1]=two
+                app.users[0]=x
+                app.users[0].b=y
+                app.users[1].b=z
+                """)).isEqualTo("""
+                app:
+                  servers:
+                    - one
+                    - two
+                  users[0]: x
+                  users[0].b: y
+                  users[1]:
+                    b: z
+                """);
+    }
+
+    @Test
+    void convert_keepsNestedIndicesOfAListItemWithKeys() {
+        assertThat(PropertiesToYaml.convert("""
+                a[0].b=y
+                a[0][0]=x
+                """)).isEqualTo("""
+                a:
+                  - b: y
+                    "[0]": x
+                """);
+    }
+
+    @Test
+    void convert_splitsMultiDocumentFiles() {
+        assertThat(PropertiesToYaml.convert("""
+                a.b=1
+                #---
+                spring.config.activate.on-profile=dev
+                a.b=2
+                """)).isEqualTo("""
+                a:
+                  b: 1
+                ---
+                spring:
+                  config:
+                    activate:
+                      on-profile: dev
+                a:
+                  b: 2
+                """);
+    }
+}
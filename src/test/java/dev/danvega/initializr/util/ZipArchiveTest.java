@@ -0,0 +1,97 @@
+package dev.danvega.initializr.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ZipArchiveTest {
+
+    private static String read(ZipArchive archive, ZipArchive.Entry entry) throws IOException {
+        try (var in = archive.open(entry)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    void read_listsEntriesInArchiveOrder() throws IOException {
+        var archive = ZipArchive.read(ZipExtractorTest.zip("demo/", null, "demo/pom.xml", "<project/>", "demo/mvnw", "#!/bin/sh"));
+
+        assertThat(archive.entries().stream().map(ZipArchive.Entry::name).toList())
+                .containsExactly("demo/", "demo/pom.xml", "demo/mvnw");
+        assertThat(archive.entries().get(0).isDirectory()).isTrue();
+    }
+
+    @Test
+    void read_exposesUnixModes(@TempDir Path tempDir) throws IOException {
+        var archive = ZipArchive.read(ZipExtractorTest.zipWithModes(tempDir));
+
+        var modes = archive.entries().stream()
+                .filter(entry -> !entry.isDirectory())
+                .map(entry -> entry.name() + "=" + Integer.toOctalString(entry.mode()))
+                .toList();
+        assertThat(modes).containsExactlyInAnyOrder("demo/mvnw=755", "demo/pom.xml=644");
+    }
+
+    @Test
+    void read_reportsNoModeForNonUnixArchives() throws IOException {
+        var archive = ZipArchive.read(ZipExtractorTest.zip("a.txt", "a"));
+
+        assertThat(archive.entries().getFirst().mode()).isEqualTo(0);
+    }
+
+    @Test
+    void open_readsEntriesInAnyOrder() throws IOException {
+        var archive = ZipArchive.read(ZipExtractorTest.zip("a.txt", "alpha".repeat(100), "b.txt", "beta"));
+
+        assertThat(read(archive, archive.entries().get(1))).isEqualTo("beta");
+        assertThat(read(archive, archive.entries().get(0))).isEqualTo("alpha".repeat(100));
+    }
+
+    @Test
+    void open_readsStoredEntries() throws IOException {
+        byte[] content = "stored".getBytes(StandardCharsets.UTF_8);
+        var crc = new CRC32();
+        crc.update(content);
+        var out = new ByteArrayOutputStream();
+        try (var zos = new ZipOutputStream(out)) {
+            var entry = new ZipEntry("stored.txt");
+            entry.setMethod(ZipEntry.STORED);
+            entry.setSize(content.length);
+            entry.setCrc(crc.getValue());
+            zos.putNextEntry(entry);
+            zos.write(content);
+            zos.closeEntry();
+        }
+        var archive = ZipArchive.read(out.toByteArray());
+
+        assertThat(read(archive, archive.entries().getFirst())).isEqualTo("stored");
+    }
+
+    @Test
+    void open_detectsCorruptData() throws IOException {
+        byte[] zip = ZipExtractorTest.zip("a.txt", "x".repeat(1000));
+        var entry = ZipArchive.read(zip).entries().getFirst();
+        // Flip a byte of the compressed data, just past the local header and name
+        zip[(int) entry.offset() + 30 + "a.txt".length() + 1] ^= 0x55;
+        var archive = ZipArchive.read(zip);
+
+        assertThatThrownBy(() -> read(archive, entry)).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void read_rejectsNonZipData() {
+        assertThatThrownBy(() -> ZipArchive.read("not a zip at all, just text".getBytes(StandardCharsets.UTF_8)))
+                .isInstanceOf(ZipException.class);
+    }
+}
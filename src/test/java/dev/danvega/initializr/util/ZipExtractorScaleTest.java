@@ -0,0 +1,114 @@
+package dev.danvega.initializr.util;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Sequential against concurrent writes when extracting an in-memory archive, on the
+ * temp directory's file system and on tmpfs where there is one. Prints median times;
+ * run with {@code mvn test -Dgroups=scale}, ideally on a machine with several cores.
+ */
+@Tag("scale")
+class ZipExtractorScaleTest {
+
+    private static final List<Integer> ENTRY_COUNTS = List.of(100, 1_000, 5_000);
+    private static final List<Integer> CONCURRENT_WRITES = List.of(1, 4, 16);
+    private static final Path TMPFS = Path.of("/dev/shm");
+
+    @TempDir
+    Path tempDir;
+
+    // Source files of 2-6 KB, as in a generated project
+    private static byte[] project(int entries) throws IOException {
+        var random = new Random(entries);
+        var namesAndContents = new String[2 * entries];
+        for (int i = 0; i < entries; i++) {
+            namesAndContents[2 * i] = "demo/src/p" + (i % 50) + "/File" + i + ".java";
+            var source = new StringBuilder("class File" + i + " {\n");
+            while (source.length() < 2048 + random.nextInt(4096)) {
+                source.append("    int f").append(source.length()).append(" = ").append(random.nextInt()).append(";\n");
+            }
+            namesAndContents[2 * i + 1] = source.append("}\n").toString();
+        }
+        return ZipExtractorTest.zip(namesAndContents);
+    }
+
+    private static Duration median(int runs, Runnable action) {
+        action.run();
+        var nanos = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            long start = System.nanoTime();
+            action.run();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return Duration.ofNanos(nanos[runs / 2]);
+    }
+
+    private static void delete(Path dir) {
+        if (!Files.exists(dir)) return;
+        try (var paths = Files.walk(dir)) {
+            for (var path : paths.sorted(Comparator.reverseOrder()).toList()) Files.delete(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long fileCount(Path dir) throws IOException {
+        try (var paths = Files.walk(dir)) {
+            return paths.filter(Files::isRegularFile).count();
+        }
+    }
+
+    private static void compare(String fileSystem, Path root) throws IOException {
+        System.out.printf("%s, %d cores%n%-8s", fileSystem, Runtime.getRuntime().availableProcessors(), "entries");
+        for (int writes : CONCURRENT_WRITES) System.out.printf(" %12s", writes + " writes ms");
+        System.out.println();
+        for (int entries : ENTRY_COUNTS) {
+            var archive = ZipArchive.read(project(entries));
+            System.out.printf("%-8d", entries);
+            for (int writes : CONCURRENT_WRITES) {
+                Path dest = root.resolve("out-" + writes);
+                var time = median(5, () -> {
+                    delete(dest);
+                    try {
+                        ZipExtractor.extract(archive, dest, EntryTransform.NONE,
+                                (_, in, target) -> Files.copy(in, target), writes);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                System.out.printf(" %12.1f", time.toNanos() / 1e6);
+                assertThat(fileCount(dest)).isEqualTo(entries);
+                delete(dest);
+            }
+            System.out.println();
+        }
+    }
+
+    @Test
+    void extractArchive_sequentialAgainstConcurrentWrites() throws IOException {
+        compare("temp dir", tempDir);
+        if (Files.isDirectory(TMPFS) && Files.isWritable(TMPFS)) {
+            Path root = Files.createTempDirectory(TMPFS, "zip-extractor-scale");
+            try {
+                compare("tmpfs", root);
+            } finally {
+                delete(root);
+            }
+        }
+    }
+}
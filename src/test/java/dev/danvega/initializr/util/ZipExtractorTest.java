@@ -0,0 +1,227 @@
+package dev.danvega.initializr.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ZipExtractorTest {
+
+    @TempDir
+    Path tempDir;
+
+    static byte[] zip(String... namesAndContents) throws IOException {
+        var out = new ByteArrayOutputStream();
+        try (var zos = new ZipOutputStream(out)) {
+            for (int i = 0; i < namesAndContents.length; i += 2) {
+                zos.putNextEntry(new ZipEntry(namesAndContents[i]));
+                if (namesAndContents[i + 1] != null) {
+                    zos.write(namesAndContents[i + 1].getBytes(StandardCharsets.UTF_8));
+                }
+                zos.closeEntry();
+            }
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * A project ZIP with Unix modes, as start.spring.io produces: an executable mvnw and a plain pom.xml.
+     */
+    static byte[] zipWithModes(Path dir) throws IOException {
+        Path zipFile = dir.resolve("modes.zip");
+        try (var fs = FileSystems.newFileSystem(zipFile, Map.of("create", "true", "enablePosixFileAttributes", "true"))) {
+            Files.createDirectories(fs.getPath("demo"));
+            Files.writeString(fs.getPath("demo/mvnw"), "#!/bin/sh\n");
+            Files.setPosixFilePermissions(fs.getPath("demo/mvnw"), PosixFilePermissions.fromString("rwxr-xr-x"));
+            Files.writeString(fs.getPath("demo/pom.xml"), "<project/>");
+            Files.setPosixFilePermissions(fs.getPath("demo/pom.xml"), PosixFilePermissions.fromString("rw-r--r--"));
+        }
+        byte[] zip = Files.readAllBytes(zipFile);
+        Files.delete(zipFile);
+        return zip;
+    }
+
+    static boolean isExecutable(Path file) throws IOException {
+        return Files.getPosixFilePermissions(file).contains(PosixFilePermission.OWNER_EXECUTE);
+    }
+
+    @Test
+    void extract_writesFilesAndDirectories() throws IOException {
+        byte[] zip = zip("demo/", null, "demo/pom.xml", "<project/>", "demo/src/main/App.java", "class App {}");
+
+        ZipExtractor.extract(new ByteArrayInputStream(zip), tempDir);
+
+        assertThat(Files.readString(tempDir.resolve("demo/pom.xml"))).isEqualTo("<project/>");
+        assertThat(Files.readString(tempDir.resolve("demo/src/main/App.java"))).isEqualTo("class App {}");
+    }
+
+    @Test
+    void extract_rejectsEntriesOutsideDestination() throws IOException {
+        byte[] zip = zip("../evil.txt", "boom");
+
+        assertThatThrownBy(() -> ZipExtractor.extract(new ByteArrayInputStream(zip), tempDir.resolve("out")))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("evil.txt");
+        assertThat(Files.exists(tempDir.resolve("evil.txt"))).isFalse();
+    }
+
+    @Test
+    void extract_appliesUnixModesFromCentralDirectory() throws IOException {
+        byte[] zip = zipWithModes(tempDir);
+
+        ZipExtractor.extract(new ByteArrayInputStream(zip), tempDir.resolve("out"));
+
+        assertThat(isExecutable(tempDir.resolve("out/demo/mvnw"))).isTrue();
+        assertThat(isExecutable(tempDir.resolve("out/demo/pom.xml"))).isFalse();
+    }
+
+    @Test
+    void extract_appliesUnixModesAfterEntriesLargerThanTheKeptTail() throws IOException {
+        Path zipFile = tempDir.resolve("large.zip");
+        var random = new byte[1024 * 1024];
+        new Random(1).nextBytes(random);
+        try (var fs = FileSystems.newFileSystem(zipFile, Map.of("create", "true", "enablePosixFileAttributes", "true"))) {
+            Files.createDirectories(fs.getPath("demo"));
+            Files.write(fs.getPath("demo/lib.jar"), random);
+            Files.writeString(fs.getPath("demo/mvnw"), "#!/bin/sh\n");
+            Files.setPosixFilePermissions(fs.getPath("demo/mvnw"), PosixFilePermissions.fromString("rwxr-xr-x"));
+        }
+
+        var entries = ZipExtractor.extract(Files.newInputStream(zipFile), tempDir.resolve("out"),
+                EntryTransform.NONE, (_, in, target) -> Files.copy(in, target));
+
+        assertThat(entries.stream().map(ZipArchive.Entry::name).toList()).contains("demo/lib.jar", "demo/mvnw");
+        assertThat(Files.readAllBytes(tempDir.resolve("out/demo/lib.jar"))).isEqualTo(random);
+        assertThat(isExecutable(tempDir.resolve("out/demo/mvnw"))).isTrue();
+    }
+
+    // --- transforms ---
+
+    private static final String PROPERTIES_PATH = "demo/src/main/resources/application.properties";
+
+    @Test
+    void noneTransform_copiesEntriesUnchanged() throws IOException {
+        var out = new ByteArrayOutputStream();
+
+        EntryTransform.NONE.transform(new ByteArrayInputStream("server.port=8080\n".getBytes(StandardCharsets.UTF_8)), out);
+
+        assertThat(EntryTransform.NONE.targetName(PROPERTIES_PATH)).isEqualTo(PROPERTIES_PATH);
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("server.port=8080\n");
+    }
+
+    @Test
+    void extract_transformsEntriesWithoutWritingOriginals() throws IOException {
+        byte[] zip = zip("demo/pom.xml", "<project/>", PROPERTIES_PATH, "spring.application.name=demo\n");
+        var written = new ArrayList<Path>();
+
+        ZipExtractor.extract(new ByteArrayInputStream(zip), tempDir, new PropertiesToYaml(), (name, in, target) -> {
+            written.add(tempDir.relativize(target));
+            Files.copy(in, target);
+        });
+
+        assertThat(written).containsExactly(Path.of("demo/pom.xml"), Path.of("demo/src/main/resources/application.yml"));
+        assertThat(Files.readString(tempDir.resolve("demo/src/main/resources/application.yml")))
+                .isEqualTo("spring:\n  application:\n    name: demo\n");
+        assertThat(Files.exists(tempDir.resolve(PROPERTIES_PATH))).isFalse();
+    }
+
+    @Test
+    void extractArchive_transformsEntriesWithoutWritingOriginals() throws IOException {
+        var archive = ZipArchive.read(zip(PROPERTIES_PATH, "server.port=8080\n"));
+        var written = Collections.synchronizedList(new ArrayList<String>());
+
+        ZipExtractor.extract(archive, tempDir, new PropertiesToYaml(), (name, in, target) -> {
+            written.add(name);
+            Files.copy(in, target);
+        });
+
+        assertThat(written).containsExactly("demo/src/main/resources/application.yml");
+        assertThat(Files.readString(tempDir.resolve("demo/src/main/resources/application.yml")))
+                .isEqualTo("server:\n  port: 8080\n");
+    }
+
+    @Test
+    void countingInputStream_reportsRunningTotal() throws IOException {
+        byte[] zip = zip("a.txt", "x".repeat(10_000));
+        var reported = new long[1];
+
+        var counting = new CountingInputStream(new ByteArrayInputStream(zip), count -> reported[0] = count);
+        ZipExtractor.extract(counting, tempDir);
+
+        assertThat(counting.getCount()).isEqualTo(zip.length);
+        assertThat(reported[0]).isEqualTo(zip.length);
+    }
+
+    // --- archive extraction ---
+
+    private static byte[] thousandsOfEntries() throws IOException {
+        var entries = new String[2 * 2000];
+        for (int i = 0; i < 2000; i++) {
+            entries[2 * i] = "demo/src/p" + (i % 50) + "/File" + i + ".java";
+            entries[2 * i + 1] = "class File" + i + " {}";
+        }
+        return zip(entries);
+    }
+
+    private void assertThousandsOfEntriesExtracted() throws IOException {
+        assertThat(Files.readString(tempDir.resolve("demo/src/p0/File0.java"))).isEqualTo("class File0 {}");
+        assertThat(Files.readString(tempDir.resolve("demo/src/p49/File1999.java"))).isEqualTo("class File1999 {}");
+        try (var files = Files.walk(tempDir)) {
+            assertThat(files.filter(Files::isRegularFile).count()).isEqualTo(2000);
+        }
+    }
+
+    @Test
+    void extractArchive_writesThousandsOfEntries() throws IOException {
+        ZipExtractor.extract(ZipArchive.read(thousandsOfEntries()), tempDir);
+
+        assertThousandsOfEntriesExtracted();
+    }
+
+    @Test
+    void extractArchive_writesThousandsOfEntriesConcurrently() throws IOException {
+        ZipExtractor.extract(ZipArchive.read(thousandsOfEntries()), tempDir, EntryTransform.NONE,
+                (_, in, target) -> Files.copy(in, target), 16);
+
+        assertThousandsOfEntriesExtracted();
+    }
+
+    @Test
+    void extractArchive_appliesUnixModes() throws IOException {
+        var archive = ZipArchive.read(zipWithModes(tempDir));
+
+        ZipExtractor.extract(archive, tempDir.resolve("out"));
+
+        assertThat(Files.getPosixFilePermissions(tempDir.resolve("out/demo/mvnw")))
+                .isEqualTo(PosixFilePermissions.fromString("rwxr-xr-x"));
+        assertThat(isExecutable(tempDir.resolve("out/demo/pom.xml"))).isFalse();
+    }
+
+    @Test
+    void extractArchive_writesNothingWhenAnyEntryEscapes() throws IOException {
+        byte[] zip = zip("demo/pom.xml", "<project/>", "../evil.txt", "boom");
+
+        assertThatThrownBy(() -> ZipExtractor.extract(ZipArchive.read(zip), tempDir.resolve("out")))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("evil.txt");
+        assertThat(Files.exists(tempDir.resolve("out"))).isFalse();
+        assertThat(Files.exists(tempDir.resolve("evil.txt"))).isFalse();
+    }
+}